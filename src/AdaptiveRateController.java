@@ -0,0 +1,108 @@
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Control de tasa AIMD (Additive Increase / Multiplicative Decrease) sobre un RateLimiter.
+// - Mientras las respuestas son correctas, la tasa sube de forma lineal (+incremento por segundo de éxito).
+// - Ante un 429 la tasa se multiplica por 'factorReduccion' y se pausa el limitador
+//   el tiempo que indique Retry-After (o una espera por defecto si no viene).
+// - Ante un error del servidor (5xx, o 403 si el servidor lo usa para frenar) también se reduce, sin pausa.
+public class AdaptiveRateController {
+
+    private final RateLimiter limitador;
+    private final double tasaMinima;
+    private final double tasaMaxima;
+    private final double incrementoPorSegundo;
+    private final double factorReduccion;
+    private final long esperaPorDefectoMs;
+
+    private final AtomicLong totalExitos = new AtomicLong();
+    private final AtomicLong total429 = new AtomicLong();
+    private final AtomicLong totalErrores = new AtomicLong();
+    // Una ráfaga de errores llega a la vez a todos los hilos: se recorta como mucho una vez por segundo
+    private long ultimoRecorteMs = 0;
+
+    public AdaptiveRateController(RateLimiter limitador, double tasaMinima, double tasaMaxima,
+                                  double incrementoPorSegundo, double factorReduccion, long esperaPorDefectoMs) {
+        this.limitador = limitador;
+        this.tasaMinima = tasaMinima;
+        this.tasaMaxima = tasaMaxima;
+        this.incrementoPorSegundo = incrementoPorSegundo;
+        this.factorReduccion = factorReduccion;
+        this.esperaPorDefectoMs = esperaPorDefectoMs;
+    }
+
+    public void adquirir() throws InterruptedException {
+        limitador.adquirir();
+    }
+
+    // Incremento aditivo: cada éxito suma incremento/tasa, es decir, +incremento por cada segundo a esa tasa.
+    public void registrarExito() {
+        totalExitos.incrementAndGet();
+        synchronized (limitador) {
+            double tasa = limitador.getTasa();
+            if (tasa < tasaMaxima) {
+                limitador.setTasa(Math.min(tasaMaxima, tasa + incrementoPorSegundo / tasa));
+            }
+        }
+    }
+
+    // Reducción multiplicativa. Devuelve los milisegundos que se ha pausado el limitador.
+    public long registrarRateLimit(String retryAfter) {
+        total429.incrementAndGet();
+        long esperaMs = parsearRetryAfter(retryAfter, esperaPorDefectoMs);
+        synchronized (limitador) {
+            // Si ya estamos en pausa, otro hilo recibió el mismo bloqueo: no recortamos dos veces
+            if (!limitador.estaPausado()) {
+                limitador.setTasa(Math.max(tasaMinima, limitador.getTasa() * factorReduccion));
+            }
+            limitador.pausar(esperaMs);
+        }
+        return esperaMs;
+    }
+
+    // Reducción multiplicativa sin pausa: el servidor falla o frena, pero no ha dicho cuánto esperar.
+    public void registrarError() {
+        totalErrores.incrementAndGet();
+        synchronized (limitador) {
+            long ahora = System.currentTimeMillis();
+            if (ahora - ultimoRecorteMs >= 1000) {
+                limitador.setTasa(Math.max(tasaMinima, limitador.getTasa() * factorReduccion));
+                ultimoRecorteMs = ahora;
+            }
+        }
+    }
+
+    public double getTasaActual() {
+        return limitador.getTasa();
+    }
+
+    public long getTotalExitos() {
+        return totalExitos.get();
+    }
+
+    public long getTotal429() {
+        return total429.get();
+    }
+
+    public long getTotalErrores() {
+        return totalErrores.get();
+    }
+
+    // Retry-After admite segundos ("120") o una fecha HTTP ("Wed, 21 Oct 2015 07:28:00 GMT")
+    public static long parsearRetryAfter(String retryAfter, long esperaPorDefectoMs) {
+        if (retryAfter == null || retryAfter.isBlank()) return esperaPorDefectoMs;
+        String valor = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(valor) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime fecha = ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(fecha.getZone()), fecha).toMillis());
+            } catch (Exception ex) {
+                return esperaPorDefectoMs;
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reparto de trabajo entre varias API Keys.
+// Cada clave tiene su propio presupuesto (token bucket) y sus hilos trabajadores (uno por defecto): los hilos van
+// cogiendo ítems de una lista o fuente común, así que el rendimiento total crece con el número de claves.
+// Con varios hilos por clave la latencia de red de unas peticiones se solapa con otras sin pasar del presupuesto.
+// Si una clave devuelve 401 se retira del pool y su ítem pasa a otra clave.
+public class ApiKeyPool {
+
+    // La lanza el código de cada petición al recibir un 401: la clave queda invalidada
+    public static class ClaveInvalidaException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public ClaveInvalidaException(String mensaje) {
+            super(mensaje);
+        }
+    }
+
+    // Origen de ítems bajo demanda (p. ej. una consulta paginada). Lo llaman varios hilos a la vez:
+    // debe ser thread-safe y devolver null cuando ya no quedan.
+    @FunctionalInterface
+    public interface Fuente<T> {
+        T siguiente() throws InterruptedException;
+    }
+
+    @FunctionalInterface
+    public interface Trabajo<T> {
+        void procesar(T item, Clave clave) throws Exception;
+    }
+
+    public static class Clave {
+        private final String valor;
+        private final RateLimiter limitador;
+        private final AtomicInteger peticiones = new AtomicInteger();
+        private volatile boolean invalida = false;
+
+        Clave(String valor, double peticionesPorSegundo, double rafaga) {
+            this.valor = valor;
+            this.limitador = new RateLimiter(peticionesPorSegundo, rafaga);
+        }
+
+        public String getValor() {
+            return valor;
+        }
+
+        // Espera a que haya presupuesto para una petición con esta clave
+        public void adquirir() throws InterruptedException {
+            limitador.adquirir();
+            peticiones.incrementAndGet();
+        }
+
+        // Pausa solo esta clave (p. ej. ante un 429); las demás siguen trabajando
+        public void pausar(long ms) {
+            limitador.pausar(ms);
+        }
+
+        public int getPeticiones() {
+            return peticiones.get();
+        }
+
+        public boolean isInvalida() {
+            return invalida;
+        }
+
+        public String abreviada() {
+            return valor.substring(0, Math.min(8, valor.length())) + "...";
+        }
+    }
+
+    private final List<Clave> claves = new ArrayList<>();
+    private final int hilosPorClave;
+
+    public ApiKeyPool(String[] valores, double peticionesPorSegundoPorClave, double rafagaPorClave) {
+        this(valores, peticionesPorSegundoPorClave, rafagaPorClave, 1);
+    }
+
+    public ApiKeyPool(String[] valores, double peticionesPorSegundoPorClave, double rafagaPorClave, int hilosPorClave) {
+        this.hilosPorClave = Math.max(1, hilosPorClave);
+        for (String valor : valores) {
+            claves.add(new Clave(valor, peticionesPorSegundoPorClave, rafagaPorClave));
+        }
+    }
+
+    public int clavesActivas() {
+        int activas = 0;
+        for (Clave clave : claves) {
+            if (!clave.invalida) activas++;
+        }
+        return activas;
+    }
+
+    public int totalPeticiones() {
+        int total = 0;
+        for (Clave clave : claves) total += clave.getPeticiones();
+        return total;
+    }
+
+    // Procesa todos los ítems con hilosPorClave hilos por clave activa y bloquea hasta terminar.
+    // Los errores de un ítem se registran y no detienen al resto.
+    public <T> void procesar(List<T> items, Trabajo<T> trabajo) throws InterruptedException {
+        AtomicInteger siguiente = new AtomicInteger(0);
+        procesar(() -> {
+            int i = siguiente.getAndIncrement();
+            return i < items.size() ? items.get(i) : null;
+        }, trabajo);
+    }
+
+    // Igual, pero los ítems se piden a la fuente a medida que los hilos quedan libres:
+    // el trabajo empieza con el primer ítem y no hace falta tener la lista entera en memoria.
+    public <T> void procesar(Fuente<T> fuente, Trabajo<T> trabajo) throws InterruptedException {
+        Reparto<T> reparto = new Reparto<>(fuente);
+        List<Thread> hilos = new ArrayList<>();
+
+        for (Clave clave : claves) {
+            if (clave.invalida) continue;
+            for (int h = 0; h < hilosPorClave; h++) {
+                Thread hilo = new Thread(() -> trabajar(clave, reparto, trabajo), "key-" + clave.abreviada() + "-" + h);
+                hilos.add(hilo);
+                hilo.start();
+            }
+        }
+
+        try {
+            for (Thread hilo : hilos) hilo.join();
+        } catch (InterruptedException e) {
+            for (Thread hilo : hilos) hilo.interrupt();
+            throw e;
+        }
+
+        if (!reparto.reasignados.isEmpty() || (clavesActivas() == 0 && !reparto.agotada)) {
+            System.err.println("❌ No quedan API Keys válidas. Quedan ítems sin procesar (" + reparto.reasignados.size() + " reasignados" +
+                               (reparto.agotada ? "" : " y el resto de la fuente") + ").");
+        }
+    }
+
+    // Estado compartido por los hilos de una llamada a procesar().
+    // enVuelo cuenta los hilos que tienen (o están pidiendo) un ítem: mientras haya alguno, un 401 puede devolver
+    // su ítem a reasignados, así que los demás hilos no terminan aunque la fuente esté agotada.
+    private static class Reparto<T> {
+        final Fuente<T> fuente;
+        final Queue<T> reasignados = new ConcurrentLinkedQueue<>();
+        final AtomicInteger enVuelo = new AtomicInteger();
+        volatile boolean agotada = false;
+
+        Reparto(Fuente<T> fuente) {
+            this.fuente = fuente;
+        }
+
+        synchronized void avisar() {
+            notifyAll();
+        }
+
+        // true si ya no puede llegar más trabajo; si no, espera un poco a que se reasigne algo o terminen los demás
+        synchronized boolean terminado() throws InterruptedException {
+            if (reasignados.isEmpty() && enVuelo.get() == 0) return true;
+            if (reasignados.isEmpty()) wait(200);
+            return false;
+        }
+    }
+
+    private <T> void trabajar(Clave clave, Reparto<T> reparto, Trabajo<T> trabajo) {
+        try {
+            while (!clave.invalida && !Thread.currentThread().isInterrupted()) {
+                // Se cuenta en vuelo antes de coger el ítem: otro hilo nunca ve "nada en vuelo" con un ítem ya cogido
+                reparto.enVuelo.incrementAndGet();
+                T item = reparto.reasignados.poll();
+                if (item == null && !reparto.agotada) {
+                    try {
+                        item = reparto.fuente.siguiente();
+                    } catch (InterruptedException e) {
+                        reparto.enVuelo.decrementAndGet();
+                        throw e;
+                    }
+                    if (item == null) reparto.agotada = true;
+                }
+                if (item == null) {
+                    reparto.enVuelo.decrementAndGet();
+                    reparto.avisar();
+                    if (reparto.terminado()) return;
+                    continue;
+                }
+
+                try {
+                    trabajo.procesar(item, clave);
+                } catch (ClaveInvalidaException e) {
+                    if (!clave.invalida) {
+                        clave.invalida = true;
+                        System.err.println("⚠️ API Key " + clave.abreviada() + " retirada del pool: " + e.getMessage() +
+                                           " (quedan " + clavesActivas() + ")");
+                    }
+                    reparto.reasignados.add(item);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    System.err.println("❌ Error procesando " + item + ": " + e.getMessage());
+                } finally {
+                    reparto.enVuelo.decrementAndGet();
+                    reparto.avisar();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
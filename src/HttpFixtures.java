@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Almacén de respuestas grabadas de las APIs (Steam, RAWG) para reproducirlas con HttpReplayServer.
+// Cada respuesta se guarda en un fichero cuyo nombre es el SHA-1 de su clave: host + ruta + query sin el parámetro "key",
+// así la grabación no contiene API Keys y se reproduce con cualquier clave.
+// - <sha1>.json: cuerpo de una respuesta 200
+// - <sha1>.404: la API respondió 404 (RAWGDetailCollector y RAWGRawCollector dependen de distinguirlo)
+// - indice.tsv: sha1 y clave, para poder buscar a mano qué hay grabado
+public class HttpFixtures {
+
+    public static class Fixture {
+        final int codigo;
+        final byte[] cuerpo;
+
+        Fixture(int codigo, byte[] cuerpo) {
+            this.codigo = codigo;
+            this.cuerpo = cuerpo;
+        }
+    }
+
+    private final Path directorio;
+
+    public HttpFixtures(Path directorio) throws IOException {
+        this.directorio = directorio;
+        Files.createDirectories(directorio);
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    // "https://api.rawg.io/api/games/3498?key=abc" -> "api.rawg.io/api/games/3498"
+    public static String clave(URI uri) {
+        return clave(uri.getHost(), uri.getRawPath(), uri.getRawQuery());
+    }
+
+    public static String clave(String host, String ruta, String query) {
+        StringBuilder sb = new StringBuilder();
+        if (host != null) sb.append(host);
+        if (ruta != null) sb.append(ruta);
+        String sinClave = quitarApiKey(query);
+        if (!sinClave.isEmpty()) sb.append('?').append(sinClave);
+        return sb.toString();
+    }
+
+    private static String quitarApiKey(String query) {
+        if (query == null || query.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder();
+        for (String parametro : query.split("&")) {
+            if (parametro.isEmpty() || parametro.startsWith("key=")) continue;
+            if (sb.length() > 0) sb.append('&');
+            sb.append(parametro);
+        }
+        return sb.toString();
+    }
+
+    // Solo se graban 200 y 404: el resto (429, 5xx) son estados transitorios que el servidor de replay simula aparte.
+    // RAWG repite la API Key dentro del cuerpo (en "next"/"previous"), así que también se borra de ahí.
+    public void guardar(URI uri, int codigo, byte[] cuerpo) throws IOException {
+        if (codigo != 200 && codigo != 404) return;
+        String apiKey = valorApiKey(uri.getRawQuery());
+        if (apiKey != null && codigo == 200) {
+            cuerpo = new String(cuerpo, StandardCharsets.UTF_8).replace(apiKey, "").getBytes(StandardCharsets.UTF_8);
+        }
+        String clave = clave(uri);
+        String nombre = hash(clave);
+        Files.deleteIfExists(directorio.resolve(nombre + (codigo == 200 ? ".404" : ".json")));
+        Files.write(directorio.resolve(nombre + (codigo == 200 ? ".json" : ".404")), codigo == 200 ? cuerpo : new byte[0]);
+        synchronized (this) {
+            Files.write(directorio.resolve("indice.tsv"), (nombre + "\t" + codigo + "\t" + clave + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static String valorApiKey(String query) {
+        if (query == null) return null;
+        for (String parametro : query.split("&")) {
+            if (parametro.startsWith("key=") && parametro.length() > 4) return parametro.substring(4);
+        }
+        return null;
+    }
+
+    // null si no hay nada grabado para esa clave
+    public Fixture buscar(String clave) throws IOException {
+        String nombre = hash(clave);
+        Path cuerpo = directorio.resolve(nombre + ".json");
+        if (Files.exists(cuerpo)) return new Fixture(200, Files.readAllBytes(cuerpo));
+        if (Files.exists(directorio.resolve(nombre + ".404"))) return new Fixture(404, new byte[0]);
+        return null;
+    }
+
+    private static String hash(String clave) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(clave.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(40);
+            for (byte b : digest) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+// Cliente HTTP compartido por todos los collectors.
+// Un único java.net.http.HttpClient para todo el proceso: las conexiones (y su handshake TLS) se reutilizan entre hilos,
+// con HTTP/2 cuando el servidor lo negocia. Se pide gzip/deflate y el cuerpo se descomprime aquí, en streaming.
+// Timeouts configurables con -Dhttp.timeoutConexion y -Dhttp.timeoutPeticion (segundos).
+// Con -Dhttp.grabar=<dir> las respuestas 200/404 se guardan además en HttpFixtures para reproducirlas con HttpReplayServer.
+public class HttpPool {
+
+    private static final Duration TIMEOUT_CONEXION = Duration.ofSeconds(Long.getLong("http.timeoutConexion", 15));
+    private static final Duration TIMEOUT_PETICION = Duration.ofSeconds(Long.getLong("http.timeoutPeticion", 30));
+    private static final String USER_AGENT = "SteamDataScraper/1.0";
+
+    private static final HttpFixtures GRABACION = crearGrabacion(System.getProperty("http.grabar"));
+
+    private static final HttpClient CLIENTE = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(TIMEOUT_CONEXION)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    // El cuerpo solo se lee si la respuesta es 200; en otro caso se descarta para liberar la conexión
+    private static final HttpResponse.BodyHandler<InputStream> SOLO_SI_200 = info -> info.statusCode() == 200
+            ? HttpResponse.BodySubscribers.ofInputStream()
+            : HttpResponse.BodySubscribers.replacing(null);
+
+    public static class Respuesta implements AutoCloseable {
+        private final int codigo;
+        private final HttpHeaders cabeceras;
+        private final InputStream cuerpo;
+
+        Respuesta(int codigo, HttpHeaders cabeceras, InputStream cuerpo) {
+            this.codigo = codigo;
+            this.cabeceras = cabeceras;
+            this.cuerpo = cuerpo;
+        }
+
+        public int getCodigo() {
+            return codigo;
+        }
+
+        public String cabecera(String nombre) {
+            return cabeceras.firstValue(nombre).orElse(null);
+        }
+
+        // Ya descomprimido. null si el código no es 200.
+        public InputStream getCuerpo() {
+            return cuerpo;
+        }
+
+        public byte[] bytes() throws IOException {
+            if (cuerpo == null) return null;
+            try (InputStream in = cuerpo) {
+                return in.readAllBytes();
+            }
+        }
+
+        public String texto() throws IOException {
+            byte[] bytes = bytes();
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cuerpo != null) cuerpo.close();
+        }
+    }
+
+    // Respuesta con código distinto de 200: quien reintenta decide por el código, no por el texto del mensaje
+    public static class ErrorHttpException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int codigo;
+
+        public ErrorHttpException(int codigo) {
+            super("HTTP Code " + codigo);
+            this.codigo = codigo;
+        }
+
+        public int getCodigo() {
+            return codigo;
+        }
+    }
+
+    private HttpPool() {}
+
+    public static Respuesta get(String url) throws IOException, InterruptedException {
+        return get(url, TIMEOUT_PETICION);
+    }
+
+    public static Respuesta get(String url, Duration timeout) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = CLIENTE.send(request, SOLO_SI_200);
+        InputStream cuerpo = response.body();
+        if (cuerpo != null) {
+            try {
+                cuerpo = descomprimir(cuerpo, response.headers().firstValue("Content-Encoding").orElse(""));
+            } catch (IOException e) {
+                cuerpo.close();
+                throw e;
+            }
+        }
+        if (GRABACION != null) cuerpo = grabar(request.uri(), response.statusCode(), cuerpo);
+        return new Respuesta(response.statusCode(), response.headers(), cuerpo);
+    }
+
+    // Modo grabación: el cuerpo se lee entero para guardarlo y se devuelve desde memoria
+    private static InputStream grabar(URI uri, int codigo, InputStream cuerpo) throws IOException {
+        byte[] bytes = new byte[0];
+        if (cuerpo != null) {
+            try (InputStream in = cuerpo) {
+                bytes = in.readAllBytes();
+            }
+        }
+        GRABACION.guardar(uri, codigo, bytes);
+        return cuerpo != null ? new ByteArrayInputStream(bytes) : null;
+    }
+
+    private static HttpFixtures crearGrabacion(String directorio) {
+        if (directorio == null || directorio.isBlank()) return null;
+        try {
+            HttpFixtures fixtures = new HttpFixtures(Paths.get(directorio));
+            System.out.println("⏺️ Grabando respuestas HTTP en " + fixtures.getDirectorio().toAbsolutePath());
+            return fixtures;
+        } catch (IOException e) {
+            System.err.println("⚠️ No se puede grabar en " + directorio + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // HttpClient no descomprime por su cuenta. Se hace en el hilo que llama (GZIPInputStream lee la cabecera al crearse).
+    private static InputStream descomprimir(InputStream in, String encoding) throws IOException {
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in, 8192);
+            case "deflate":
+                return new InflaterInputStream(in);
+            default:
+                return in;
+        }
+    }
+}
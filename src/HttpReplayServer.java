@@ -0,0 +1,129 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Servidor HTTP local que reproduce las respuestas grabadas con HttpPool (-Dhttp.grabar=<dir>).
+// Sirve para medir el rendimiento de los collectors de forma reproducible y sin gastar cuota de las APIs.
+// La primera parte de la ruta es el host original, así un solo servidor hace de Steam y de RAWG:
+//   -Drawg.apiUrl=http://127.0.0.1:8089/api.rawg.io/api
+//   -Dsteam.apiUrl=http://127.0.0.1:8089/api.steampowered.com
+//   -Dsteam.storeUrl=http://127.0.0.1:8089/store.steampowered.com
+// (o ./gradlew <tarea> -Preplay=http://127.0.0.1:8089, que fija las tres).
+// Configuración (propiedades del sistema):
+// - replay.dir: directorio de fixtures (por defecto "fixtures")
+// - replay.puerto: 8089
+// - replay.latenciaMs / replay.jitterMs: latencia fija + aleatoria añadida a cada respuesta
+// - replay.prob429: proporción de respuestas 429 (con Retry-After: replay.retryAfter, 1 s por defecto)
+// - replay.probError: proporción de respuestas 500
+// Lo que no está grabado responde 404.
+public class HttpReplayServer {
+
+    private static final AtomicLong peticiones = new AtomicLong();
+    private static final AtomicLong servidas = new AtomicLong();
+    private static final AtomicLong sinFixture = new AtomicLong();
+    private static final AtomicLong rateLimits = new AtomicLong();
+    private static final AtomicLong errores = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        HttpFixtures fixtures = new HttpFixtures(Paths.get(System.getProperty("replay.dir", "fixtures")));
+        int puerto = Integer.getInteger("replay.puerto", 8089);
+        long latenciaMs = Long.getLong("replay.latenciaMs", 0);
+        long jitterMs = Long.getLong("replay.jitterMs", 0);
+        double prob429 = Double.parseDouble(System.getProperty("replay.prob429", "0"));
+        double probError = Double.parseDouble(System.getProperty("replay.probError", "0"));
+        String retryAfter = System.getProperty("replay.retryAfter", "1");
+
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 0);
+        servidor.createContext("/", intercambio -> {
+            try {
+                peticiones.incrementAndGet();
+                long espera = latenciaMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+                if (espera > 0) Thread.sleep(espera);
+
+                double azar = ThreadLocalRandom.current().nextDouble();
+                if (azar < prob429) {
+                    rateLimits.incrementAndGet();
+                    intercambio.getResponseHeaders().add("Retry-After", retryAfter);
+                    responder(intercambio, 429, new byte[0]);
+                    return;
+                }
+                if (azar < prob429 + probError) {
+                    errores.incrementAndGet();
+                    responder(intercambio, 500, new byte[0]);
+                    return;
+                }
+
+                // "/api.rawg.io/api/games/3498" -> host "api.rawg.io", ruta "/api/games/3498"
+                String ruta = intercambio.getRequestURI().getRawPath();
+                int barra = ruta.indexOf('/', 1);
+                String host = barra > 0 ? ruta.substring(1, barra) : ruta.substring(1);
+                String resto = barra > 0 ? ruta.substring(barra) : "";
+                HttpFixtures.Fixture fixture = fixtures.buscar(HttpFixtures.clave(host, resto, intercambio.getRequestURI().getRawQuery()));
+
+                if (fixture == null) {
+                    sinFixture.incrementAndGet();
+                    responder(intercambio, 404, new byte[0]);
+                } else {
+                    servidas.incrementAndGet();
+                    responder(intercambio, fixture.codigo, fixture.cuerpo);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("❌ Error sirviendo " + intercambio.getRequestURI() + ": " + e.getMessage());
+            } finally {
+                intercambio.close();
+            }
+        });
+        // Un hilo por petición en vuelo: la latencia simulada no serializa a los clientes
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.stop(0);
+            imprimirResumen();
+        }));
+
+        System.out.println("🎬 Replay en http://127.0.0.1:" + puerto + " desde " + fixtures.getDirectorio().toAbsolutePath());
+        System.out.println(String.format("   Latencia %d ms (+%d ms) | 429: %.1f%% | Errores 500: %.1f%%",
+                latenciaMs, jitterMs, prob429 * 100, probError * 100));
+        while (true) {
+            Thread.sleep(30000);
+            imprimirResumen();
+        }
+    }
+
+    // Gzip si el cliente lo acepta, como las APIs reales (así también se mide la descompresión)
+    private static void responder(HttpExchange intercambio, int codigo, byte[] cuerpo) throws IOException {
+        String aceptadas = intercambio.getRequestHeaders().getFirst("Accept-Encoding");
+        if (cuerpo.length > 0 && aceptadas != null && aceptadas.contains("gzip")) {
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(cuerpo.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                gzip.write(cuerpo);
+            }
+            cuerpo = comprimido.toByteArray();
+            intercambio.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        if (codigo == 200) intercambio.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length == 0 ? -1 : cuerpo.length);
+        if (cuerpo.length > 0) {
+            try (OutputStream out = intercambio.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        }
+    }
+
+    private static void imprimirResumen() {
+        System.out.println("📊 Peticiones: " + peticiones.get() + " | Servidas: " + servidas.get() + " | Sin fixture: " + sinFixture.get() +
+                           " | 429: " + rateLimits.get() + " | 500: " + errores.get());
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+
+// Conjunto de int comprimido al estilo Roaring: el valor se parte en 16 bits altos (bloque) y 16 bajos.
+// Cada bloque de 65536 valores se guarda como:
+// - Lista ordenada de char (2 bytes por ID) mientras tenga <= 4096 elementos.
+// - Mapa de bits de 8 KB (1 bit por valor posible) cuando está más lleno.
+// Los app_id de Steam (~180k en unos pocos millones de valores) quedan en ~1-2 bits por valor
+// en los tramos densos y 2 bytes en los dispersos, frente a ~50 bytes de un Integer en un HashSet.
+public class IntBitmap {
+
+    private static final int LIMITE_LISTA = 4096;
+
+    private char[] bloques = new char[4];      // 16 bits altos, ordenados
+    private Object[] contenedores = new Object[4]; // char[] (lista) o long[] (mapa de bits)
+    private int[] cardinalidades = new int[4];
+    private int numBloques = 0;
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int valor) {
+        int b = buscarBloque((char) (valor >>> 16));
+        if (b < 0) return false;
+        char bajo = (char) valor;
+        Object contenedor = contenedores[b];
+        if (contenedor instanceof long[]) {
+            return (((long[]) contenedor)[bajo >>> 6] & (1L << bajo)) != 0;
+        }
+        return Arrays.binarySearch((char[]) contenedor, 0, cardinalidades[b], bajo) >= 0;
+    }
+
+    // Devuelve true si el valor no estaba
+    public boolean add(int valor) {
+        char alto = (char) (valor >>> 16);
+        char bajo = (char) valor;
+        int b = buscarBloque(alto);
+        if (b < 0) b = insertarBloque(-b - 1, alto);
+
+        Object contenedor = contenedores[b];
+        if (contenedor instanceof long[]) {
+            long[] bits = (long[]) contenedor;
+            long mascara = 1L << bajo;
+            if ((bits[bajo >>> 6] & mascara) != 0) return false;
+            bits[bajo >>> 6] |= mascara;
+        } else {
+            char[] lista = (char[]) contenedor;
+            int n = cardinalidades[b];
+            int pos = Arrays.binarySearch(lista, 0, n, bajo);
+            if (pos >= 0) return false;
+            pos = -pos - 1;
+            if (n == LIMITE_LISTA) {
+                contenedores[b] = aMapaDeBits(lista, n);
+                ((long[]) contenedores[b])[bajo >>> 6] |= 1L << bajo;
+            } else {
+                if (n == lista.length) {
+                    lista = Arrays.copyOf(lista, Math.min(LIMITE_LISTA, lista.length * 2));
+                    contenedores[b] = lista;
+                }
+                System.arraycopy(lista, pos, lista, pos + 1, n - pos);
+                lista[pos] = bajo;
+            }
+        }
+        cardinalidades[b]++;
+        size++;
+        return true;
+    }
+
+    // Bytes aproximados ocupados por los contenedores (para los logs de memoria)
+    public long bytesAproximados() {
+        long total = (long) bloques.length * (2 + 4 + 8);
+        for (int b = 0; b < numBloques; b++) {
+            Object contenedor = contenedores[b];
+            total += contenedor instanceof long[] ? ((long[]) contenedor).length * 8L : ((char[]) contenedor).length * 2L;
+        }
+        return total;
+    }
+
+    private int buscarBloque(char alto) {
+        return Arrays.binarySearch(bloques, 0, numBloques, alto);
+    }
+
+    private int insertarBloque(int pos, char alto) {
+        if (numBloques == bloques.length) {
+            int nuevaCapacidad = bloques.length * 2;
+            bloques = Arrays.copyOf(bloques, nuevaCapacidad);
+            contenedores = Arrays.copyOf(contenedores, nuevaCapacidad);
+            cardinalidades = Arrays.copyOf(cardinalidades, nuevaCapacidad);
+        }
+        int mover = numBloques - pos;
+        System.arraycopy(bloques, pos, bloques, pos + 1, mover);
+        System.arraycopy(contenedores, pos, contenedores, pos + 1, mover);
+        System.arraycopy(cardinalidades, pos, cardinalidades, pos + 1, mover);
+        bloques[pos] = alto;
+        contenedores[pos] = new char[4];
+        cardinalidades[pos] = 0;
+        numBloques++;
+        return pos;
+    }
+
+    private static long[] aMapaDeBits(char[] lista, int n) {
+        long[] bits = new long[1024];
+        for (int i = 0; i < n; i++) {
+            char v = lista[i];
+            bits[v >>> 6] |= 1L << v;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,46 @@
+import java.util.Arrays;
+
+// Lista creciente de int sin boxing (sustituye a ArrayList<Integer> en colas de trabajo de IDs)
+public class IntList {
+
+    private int[] datos;
+    private int size = 0;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacidadInicial) {
+        datos = new int[Math.max(4, capacidadInicial)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int i) {
+        if (i >= size) throw new IndexOutOfBoundsException("Índice " + i + " fuera de rango (size " + size + ")");
+        return datos[i];
+    }
+
+    public void add(int valor) {
+        if (size == datos.length) datos = Arrays.copyOf(datos, datos.length * 2);
+        datos[size++] = valor;
+    }
+
+    public void addAll(IntList otra) {
+        if (size + otra.size > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, size + otra.size));
+        }
+        System.arraycopy(otra.datos, 0, datos, size, otra.size);
+        size += otra.size;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(datos, size);
+    }
+}
@@ -0,0 +1,99 @@
+// Mapa int -> long con direccionamiento abierto (sondeo lineal) sobre dos arrays paralelos.
+// Pensado para ID -> epoch en segundos o ID -> hash: ~16-24 bytes por entrada frente a los ~80-100
+// de un HashMap<Integer, Long> (o más aún con String como valor).
+// La clave 0 marca las casillas vacías, así que se guarda aparte.
+public class IntLongHashMap {
+
+    private static final float CARGA_MAXIMA = 0.5f;
+
+    private int[] claves;
+    private long[] valores;
+    private int mascara;
+    private int umbral;
+    private int size = 0;
+    private boolean contieneCero = false;
+    private long valorCero;
+
+    public IntLongHashMap() {
+        this(16);
+    }
+
+    public IntLongHashMap(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / CARGA_MAXIMA)) - 1) << 1;
+        reservar(capacidad);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int clave) {
+        if (clave == 0) return contieneCero;
+        return buscar(clave) >= 0;
+    }
+
+    public long get(int clave, long porDefecto) {
+        if (clave == 0) return contieneCero ? valorCero : porDefecto;
+        int i = buscar(clave);
+        return i >= 0 ? valores[i] : porDefecto;
+    }
+
+    public void put(int clave, long valor) {
+        if (clave == 0) {
+            if (!contieneCero) size++;
+            contieneCero = true;
+            valorCero = valor;
+            return;
+        }
+        int i = IntHashSet.mezclar(clave) & mascara;
+        while (true) {
+            int actual = claves[i];
+            if (actual == clave) {
+                valores[i] = valor;
+                return;
+            }
+            if (actual == 0) {
+                claves[i] = clave;
+                valores[i] = valor;
+                if (++size > umbral) crecer();
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    private int buscar(int clave) {
+        int i = IntHashSet.mezclar(clave) & mascara;
+        while (true) {
+            int actual = claves[i];
+            if (actual == 0) return -1;
+            if (actual == clave) return i;
+            i = (i + 1) & mascara;
+        }
+    }
+
+    private void crecer() {
+        int[] clavesAnteriores = claves;
+        long[] valoresAnteriores = valores;
+        reservar(clavesAnteriores.length * 2);
+        for (int j = 0; j < clavesAnteriores.length; j++) {
+            int clave = clavesAnteriores[j];
+            if (clave == 0) continue;
+            int i = IntHashSet.mezclar(clave) & mascara;
+            while (claves[i] != 0) i = (i + 1) & mascara;
+            claves[i] = clave;
+            valores[i] = valoresAnteriores[j];
+        }
+    }
+
+    private void reservar(int capacidad) {
+        claves = new int[capacidad];
+        valores = new long[capacidad];
+        mascara = capacidad - 1;
+        umbral = (int) (capacidad * CARGA_MAXIMA);
+    }
+}
@@ -0,0 +1,181 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Codec de almacenamiento para los JSON crudos guardados en SQLite (json_data, json_full, json_stores).
+// - Escritura: si la compresión está activa (-Djson.compresion=true) el JSON se guarda como BLOB
+//   comprimido con Deflate y un diccionario compartido; si no, como TEXT igual que siempre.
+// - Lectura: transparente. Las filas TEXT antiguas y los BLOB comprimidos conviven en la misma columna.
+//
+// Formato del BLOB: 'J' 'Z' | versión del diccionario (1 byte) | longitud original en bytes (4 bytes) | deflate raw
+public class JsonStorage {
+
+    public static final boolean COMPRESION_ACTIVA = Boolean.parseBoolean(System.getProperty("json.compresion", "false"));
+
+    private static final byte MAGIC_1 = 'J';
+    private static final byte MAGIC_2 = 'Z';
+    private static final byte VERSION_DICCIONARIO = 1;
+    private static final int CABECERA = 7;
+
+    // Diccionario compartido: fragmentos que se repiten en casi todas las respuestas de Steam (appdetails)
+    // y RAWG (/games, /games/{id}, /stores). Deflate busca coincidencias hacia atrás en los últimos 32 KB,
+    // así que cada fila comprime como si ya hubiera "visto" un documento típico.
+    // ¡NO MODIFICAR! Las filas ya comprimidas dependen de él. Si hay que cambiarlo, crear la versión 2.
+    private static final byte[] DICCIONARIO_V1 = (
+        // --- RAWG ---
+        "\"results\":[{\"id\":,\"game_id\":,\"store_id\":,\"url\":\"https://store.steampowered.com/app/\"}]" +
+        "\"description\":\"<p>\",\"description_raw\":\"\",\"name_original\":\"\",\"metacritic_platforms\":[]," +
+        "\"metacritic_url\":\"\",\"website\":\"\",\"reddit_url\":\"\",\"reddit_name\":\"\",\"reddit_description\":\"\"," +
+        "\"alternative_names\":[],\"parents_count\":0,\"additions_count\":0,\"game_series_count\":0," +
+        "\"developers\":[{\"id\":,\"name\":\"\",\"slug\":\"\",\"games_count\":,\"image_background\":\"\"}]," +
+        "\"publishers\":[{\"id\":,\"name\":\"\",\"slug\":\"\",\"games_count\":,\"image_background\":\"\"}]," +
+        "{\"slug\":\"\",\"name\":\"\",\"playtime\":0,\"platforms\":[{\"platform\":{\"id\":4,\"name\":\"PC\",\"slug\":\"pc\"}," +
+        "\"released_at\":\"\",\"requirements_en\":null,\"requirements_ru\":null}]," +
+        "\"stores\":[{\"store\":{\"id\":1,\"name\":\"Steam\",\"slug\":\"steam\"}},{\"store\":{\"id\":3,\"name\":\"PlayStation Store\",\"slug\":\"playstation-store\"}}," +
+        "{\"store\":{\"id\":2,\"name\":\"Xbox Store\",\"slug\":\"xbox-store\"}},{\"store\":{\"id\":6,\"name\":\"Nintendo Store\",\"slug\":\"nintendo\"}}]," +
+        "\"released\":\"\",\"tba\":false,\"background_image\":\"https://media.rawg.io/media/games/\",\"rating\":0,\"rating_top\":0," +
+        "\"ratings\":[{\"id\":5,\"title\":\"exceptional\",\"count\":,\"percent\":},{\"id\":4,\"title\":\"recommended\",\"count\":,\"percent\":}," +
+        "{\"id\":3,\"title\":\"meh\",\"count\":,\"percent\":},{\"id\":1,\"title\":\"skip\",\"count\":,\"percent\":}]," +
+        "\"ratings_count\":0,\"reviews_text_count\":0,\"added\":0,\"added_by_status\":{\"yet\":,\"owned\":,\"beaten\":,\"toplay\":,\"dropped\":,\"playing\":}," +
+        "\"metacritic\":null,\"suggestions_count\":0,\"updated\":\"T00:00:00\",\"id\":,\"score\":null,\"clip\":null," +
+        "\"tags\":[{\"id\":31,\"name\":\"Singleplayer\",\"slug\":\"singleplayer\",\"language\":\"eng\",\"games_count\":,\"image_background\":\"https://media.rawg.io/media/screenshots/\"}]," +
+        "\"esrb_rating\":null,\"user_game\":null,\"reviews_count\":0,\"saturated_color\":\"0f0f0f\",\"dominant_color\":\"0f0f0f\"," +
+        "\"short_screenshots\":[{\"id\":-1,\"image\":\"https://media.rawg.io/media/games/\"},{\"id\":,\"image\":\"https://media.rawg.io/media/screenshots/\"}]," +
+        "\"parent_platforms\":[{\"platform\":{\"id\":1,\"name\":\"PC\",\"slug\":\"pc\"}},{\"platform\":{\"id\":2,\"name\":\"PlayStation\",\"slug\":\"playstation\"}}," +
+        "{\"platform\":{\"id\":3,\"name\":\"Xbox\",\"slug\":\"xbox\"}},{\"platform\":{\"id\":7,\"name\":\"Nintendo\",\"slug\":\"nintendo\"}}]," +
+        "\"genres\":[{\"id\":4,\"name\":\"Action\",\"slug\":\"action\",\"games_count\":,\"image_background\":\"\"},{\"id\":51,\"name\":\"Indie\",\"slug\":\"indie\"}]," +
+        // --- STEAM ---
+        "{\"success\":true,\"data\":{\"type\":\"game\",\"name\":\"\",\"steam_appid\":,\"required_age\":0,\"is_free\":false," +
+        "\"controller_support\":\"full\",\"dlc\":[],\"detailed_description\":\"\",\"about_the_game\":\"\",\"short_description\":\"\"," +
+        "\"supported_languages\":\"English<strong>*<\\/strong>, French, German, Italian, Spanish - Spain, Japanese, Korean, Russian, " +
+        "Simplified Chinese, Traditional Chinese, Portuguese - Brazil<br><strong>*<\\/strong>languages with full audio support\"," +
+        "\"header_image\":\"https:\\/\\/shared.akamai.steamstatic.com\\/store_item_assets\\/steam\\/apps\\/\\/header.jpg?t=\"," +
+        "\"capsule_image\":\"\",\"capsule_imagev5\":\"\",\"website\":\"\"," +
+        "\"pc_requirements\":{\"minimum\":\"<strong>Minimum:<\\/strong><br><ul class=\\\"bb_ul\\\"><li>Requires a 64-bit processor and operating system<br><\\/li>" +
+        "<li><strong>OS:<\\/strong> Windows 10<br><\\/li><li><strong>Processor:<\\/strong> Intel Core i5<br><\\/li>" +
+        "<li><strong>Memory:<\\/strong> 8 GB RAM<br><\\/li><li><strong>Graphics:<\\/strong> NVIDIA GeForce GTX<br><\\/li>" +
+        "<li><strong>DirectX:<\\/strong> Version 11<br><\\/li><li><strong>Storage:<\\/strong> GB available space<\\/li><\\/ul>\"," +
+        "\"recommended\":\"<strong>Recommended:<\\/strong><br><ul class=\\\"bb_ul\\\">\"},\"mac_requirements\":[],\"linux_requirements\":[]," +
+        "\"developers\":[\"\"],\"publishers\":[\"\"],\"price_overview\":{\"currency\":\"USD\",\"initial\":,\"final\":,\"discount_percent\":0," +
+        "\"initial_formatted\":\"\",\"final_formatted\":\"$\"},\"packages\":[],\"package_groups\":[{\"name\":\"default\",\"title\":\"Buy \"," +
+        "\"description\":\"\",\"selection_text\":\"Select a purchase option\",\"save_text\":\"\",\"display_type\":0," +
+        "\"is_recurring_subscription\":\"false\",\"subs\":[{\"packageid\":,\"percent_savings_text\":\" \",\"percent_savings\":0," +
+        "\"option_text\":\"\",\"option_description\":\"\",\"can_get_free_license\":\"0\",\"is_free_license\":false,\"price_in_cents_with_discount\":}]}]," +
+        "\"platforms\":{\"windows\":true,\"mac\":false,\"linux\":false},\"metacritic\":{\"score\":,\"url\":\"https:\\/\\/www.metacritic.com\\/game\\/\"}," +
+        "\"categories\":[{\"id\":2,\"description\":\"Single-player\"},{\"id\":22,\"description\":\"Steam Achievements\"}," +
+        "{\"id\":28,\"description\":\"Full controller support\"},{\"id\":23,\"description\":\"Steam Cloud\"},{\"id\":62,\"description\":\"Family Sharing\"}]," +
+        "\"genres\":[{\"id\":\"1\",\"description\":\"Action\"},{\"id\":\"25\",\"description\":\"Adventure\"},{\"id\":\"23\",\"description\":\"Indie\"}]," +
+        "\"screenshots\":[{\"id\":0,\"path_thumbnail\":\"https:\\/\\/shared.akamai.steamstatic.com\\/store_item_assets\\/steam\\/apps\\/\\/ss_.600x338.jpg?t=\"," +
+        "\"path_full\":\"https:\\/\\/shared.akamai.steamstatic.com\\/store_item_assets\\/steam\\/apps\\/\\/ss_.1920x1080.jpg?t=\"}]," +
+        "\"movies\":[{\"id\":,\"name\":\"\",\"thumbnail\":\"https:\\/\\/shared.akamai.steamstatic.com\\/store_item_assets\\/steam\\/apps\\/\\/movie.293x165.jpg?t=\"," +
+        "\"webm\":{\"480\":\"http:\\/\\/video.akamai.steamstatic.com\\/store_trailers\\/\\/movie480_vp9.webm?t=\",\"max\":\"\"}," +
+        "\"mp4\":{\"480\":\"http:\\/\\/video.akamai.steamstatic.com\\/store_trailers\\/\\/movie480.mp4?t=\",\"max\":\"\\/movie_max.mp4?t=\"},\"highlight\":true}]," +
+        "\"recommendations\":{\"total\":},\"achievements\":{\"total\":,\"highlighted\":[{\"name\":\"\",\"path\":\"\"}]}," +
+        "\"release_date\":{\"coming_soon\":false,\"date\":\"\"},\"support_info\":{\"url\":\"\",\"email\":\"\"}," +
+        "\"background\":\"\",\"background_raw\":\"\",\"content_descriptors\":{\"ids\":[],\"notes\":null}," +
+        "\"ratings\":{\"esrb\":{\"rating\":\"m\",\"descriptors\":\"\"},\"pegi\":{\"rating\":\"16\",\"descriptors\":\"\"}}}}"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    // Deflater/Inflater son caros de crear y no son thread-safe: uno por hilo, reiniciado en cada uso
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private JsonStorage() {}
+
+    // Valor listo para PreparedStatement.setObject / SqliteBatchWriter.encolar
+    public static Object codificar(String json) {
+        if (json == null || !COMPRESION_ACTIVA) return json;
+        return comprimir(json);
+    }
+
+    // Igual que codificar, para JSON que ya llega como bytes UTF-8 (p. ej. copiado por RAWGPageDecoder)
+    public static Object codificarUtf8(byte[] json) {
+        if (json == null) return null;
+        if (!COMPRESION_ACTIVA) return new String(json, StandardCharsets.UTF_8);
+        return comprimir(json);
+    }
+
+    public static void bind(PreparedStatement ps, int indice, String json) throws SQLException {
+        ps.setObject(indice, codificar(json));
+    }
+
+    // Lee la columna sea cual sea su formato (TEXT clásico o BLOB comprimido)
+    public static String leer(ResultSet rs, String columna) throws SQLException {
+        return decodificar(rs.getObject(columna));
+    }
+
+    public static String decodificar(Object valor) {
+        if (valor == null) return null;
+        if (valor instanceof byte[]) {
+            byte[] datos = (byte[]) valor;
+            if (esComprimido(datos)) return descomprimir(datos);
+            return new String(datos, StandardCharsets.UTF_8);
+        }
+        return valor.toString();
+    }
+
+    public static boolean esComprimido(byte[] datos) {
+        return datos.length >= CABECERA && datos[0] == MAGIC_1 && datos[1] == MAGIC_2;
+    }
+
+    public static byte[] comprimir(String json) {
+        return comprimir(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] comprimir(byte[] original) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setDictionary(DICCIONARIO_V1);
+        deflater.setInput(original);
+        deflater.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(CABECERA + original.length / 4 + 64);
+        out.write(MAGIC_1);
+        out.write(MAGIC_2);
+        out.write(VERSION_DICCIONARIO);
+        out.write(original.length >>> 24);
+        out.write(original.length >>> 16);
+        out.write(original.length >>> 8);
+        out.write(original.length);
+
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    public static String descomprimir(byte[] datos) {
+        if (datos[2] != VERSION_DICCIONARIO) {
+            throw new IllegalStateException("Versión de diccionario JSON desconocida: " + datos[2]);
+        }
+        int longitud = ((datos[3] & 0xFF) << 24) | ((datos[4] & 0xFF) << 16) | ((datos[5] & 0xFF) << 8) | (datos[6] & 0xFF);
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setDictionary(DICCIONARIO_V1);
+        inflater.setInput(datos, CABECERA, datos.length - CABECERA);
+
+        byte[] original = new byte[longitud];
+        try {
+            int leidos = 0;
+            while (leidos < longitud) {
+                int n = inflater.inflate(original, leidos, longitud - leidos);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                leidos += n;
+            }
+            if (leidos != longitud) {
+                throw new IllegalStateException("JSON comprimido truncado (" + leidos + "/" + longitud + " bytes)");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("JSON comprimido corrupto: " + e.getMessage(), e);
+        }
+        return new String(original, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reescribe en su sitio los JSON crudos ya guardados al formato de JsonStorage.
+// Uso:  runJsonStorageMigrator                         -> comprime (TEXT -> BLOB)
+//       runJsonStorageMigrator --args="descomprimir"   -> revierte (BLOB -> TEXT)
+//       añadir "vacuum" para compactar el fichero al terminar (necesita espacio libre ~ tamaño de la BD)
+public class JsonStorageMigrator {
+
+    private static final int FILAS_POR_BLOQUE = 500;
+
+    private static class Objetivo {
+        final String dbFile;
+        final String tabla;
+        final String clave;
+        final String[] columnas;
+
+        Objetivo(String dbFile, String tabla, String clave, String... columnas) {
+            this.dbFile = dbFile;
+            this.tabla = tabla;
+            this.clave = clave;
+            this.columnas = columnas;
+        }
+    }
+
+    private static final Objetivo[] OBJETIVOS = {
+        new Objetivo("steam_raw.sqlite", "steam_raw_data", "app_id", "json_data"),
+        new Objetivo("rawg_raw.sqlite", "rawg_raw_data", "game_id", "json_data"),
+        new Objetivo("rawg_raw.sqlite", "rawg_details_data", "game_id", "json_full", "json_stores")
+    };
+
+    public static void main(String[] args) {
+        List<String> opciones = Arrays.asList(args);
+        boolean comprimir = !opciones.contains("descomprimir");
+        boolean vacuum = opciones.contains("vacuum");
+
+        System.out.println("🗜️ Migración de almacenamiento JSON: " + (comprimir ? "TEXT -> BLOB comprimido" : "BLOB comprimido -> TEXT"));
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            System.err.println("❌ ERROR CRÍTICO: No se encontró el driver JDBC de SQLite.");
+            return;
+        }
+
+        for (Objetivo objetivo : OBJETIVOS) {
+            if (!new File(objetivo.dbFile).exists()) {
+                System.out.println("⏩ " + objetivo.dbFile + " no existe. Saltando " + objetivo.tabla + ".");
+                continue;
+            }
+            try {
+                migrarTabla(objetivo, comprimir);
+            } catch (Exception e) {
+                System.err.println("❌ Error migrando " + objetivo.tabla + ": " + e.getMessage());
+            }
+        }
+
+        if (vacuum) {
+            for (String dbFile : new String[] {"steam_raw.sqlite", "rawg_raw.sqlite"}) {
+                if (!new File(dbFile).exists()) continue;
+                System.out.println("🧹 VACUUM de " + dbFile + " (puede tardar)...");
+                try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+                     Statement stmt = conn.createStatement()) {
+                    long antes = new File(dbFile).length();
+                    stmt.execute("VACUUM");
+                    System.out.printf("   -> %s: %.1f MB -> %.1f MB%n", dbFile, antes / 1048576.0, new File(dbFile).length() / 1048576.0);
+                } catch (Exception e) {
+                    System.err.println("⚠️ Error en VACUUM de " + dbFile + ": " + e.getMessage());
+                }
+            }
+        } else {
+            System.out.println("ℹ️ Las páginas liberadas se reutilizan, pero el fichero no encoge hasta ejecutar con 'vacuum'.");
+        }
+        System.out.println("🏁 Migración finalizada.");
+    }
+
+    private static void migrarTabla(Objetivo objetivo, boolean comprimir) throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + objetivo.dbFile)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout=5000;");
+                ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table' AND name='" + objetivo.tabla + "'");
+                if (!rs.next()) {
+                    System.out.println("⏩ Tabla " + objetivo.tabla + " no encontrada. Saltando.");
+                    return;
+                }
+            }
+
+            String columnas = String.join(", ", objetivo.columnas);
+            String sqlBloque = "SELECT " + objetivo.clave + ", " + columnas + " FROM " + objetivo.tabla +
+                               " WHERE " + objetivo.clave + " > ? ORDER BY " + objetivo.clave + " LIMIT " + FILAS_POR_BLOQUE;
+            StringBuilder set = new StringBuilder();
+            for (String columna : objetivo.columnas) {
+                if (set.length() > 0) set.append(", ");
+                set.append(columna).append(" = ?");
+            }
+            String sqlUpdate = "UPDATE " + objetivo.tabla + " SET " + set + " WHERE " + objetivo.clave + " = ?";
+
+            long bytesAntes = 0;
+            long bytesDespues = 0;
+            int filas = 0;
+            int reescritas = 0;
+            long ultimaClave = Long.MIN_VALUE;
+
+            try (PreparedStatement psBloque = conn.prepareStatement(sqlBloque);
+                 PreparedStatement psUpdate = conn.prepareStatement(sqlUpdate)) {
+                while (true) {
+                    // Materializamos el bloque antes de escribir: no se modifica la tabla con el cursor abierto
+                    List<Long> claves = new ArrayList<>();
+                    List<Object[]> valores = new ArrayList<>();
+                    psBloque.setLong(1, ultimaClave);
+                    try (ResultSet rs = psBloque.executeQuery()) {
+                        while (rs.next()) {
+                            claves.add(rs.getLong(1));
+                            Object[] fila = new Object[objetivo.columnas.length];
+                            for (int c = 0; c < fila.length; c++) fila[c] = rs.getObject(c + 2);
+                            valores.add(fila);
+                        }
+                    }
+                    if (claves.isEmpty()) break;
+
+                    conn.setAutoCommit(false);
+                    for (int i = 0; i < claves.size(); i++) {
+                        Object[] fila = valores.get(i);
+                        boolean cambia = false;
+                        for (int c = 0; c < fila.length; c++) {
+                            Object actual = fila[c];
+                            bytesAntes += tamano(actual);
+                            Object nuevo = convertir(actual, comprimir);
+                            bytesDespues += tamano(nuevo);
+                            if (nuevo != actual) cambia = true;
+                            psUpdate.setObject(c + 1, nuevo);
+                        }
+                        if (cambia) {
+                            psUpdate.setLong(fila.length + 1, claves.get(i));
+                            psUpdate.addBatch();
+                            reescritas++;
+                        }
+                    }
+                    psUpdate.executeBatch();
+                    conn.commit();
+                    conn.setAutoCommit(true);
+
+                    filas += claves.size();
+                    ultimaClave = claves.get(claves.size() - 1);
+                    System.out.print("\r   -> " + objetivo.tabla + ": " + filas + " filas revisadas, " + reescritas + " reescritas");
+                }
+            }
+            System.out.println();
+            System.out.printf("✅ %s: %.1f MB -> %.1f MB de JSON%n", objetivo.tabla, bytesAntes / 1048576.0, bytesDespues / 1048576.0);
+        }
+    }
+
+    // Devuelve el mismo objeto si ya está en el formato pedido (así se detecta que no hay que reescribir)
+    private static Object convertir(Object valor, boolean comprimir) {
+        if (valor == null) return null;
+        boolean yaComprimido = valor instanceof byte[] && JsonStorage.esComprimido((byte[]) valor);
+        if (comprimir) {
+            return yaComprimido ? valor : JsonStorage.comprimir(JsonStorage.decodificar(valor));
+        }
+        return (valor instanceof String) ? valor : JsonStorage.decodificar(valor);
+    }
+
+    private static long tamano(Object valor) {
+        if (valor == null) return 0;
+        if (valor instanceof byte[]) return ((byte[]) valor).length;
+        return valor.toString().length();
+    }
+}
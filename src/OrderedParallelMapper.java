@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transforma en paralelo una secuencia de entradas y entrega los resultados en el orden original.
+// - El hilo que llama a enviar() (p. ej. el del cursor JDBC) solo agrupa entradas en lotes.
+// - Cada lote se transforma en un pool de hilos (uno por núcleo por defecto).
+// - Un único hilo consumidor recibe los resultados lote a lote, en orden de envío: puede escribir en un fichero
+//   o actualizar estructuras sin sincronizar.
+// La cola de lotes en vuelo está acotada: si el consumidor se queda atrás, enviar() se bloquea y la memoria no crece.
+public class OrderedParallelMapper<E, S> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Transformacion<E, S> {
+        S aplicar(E entrada) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Consumidor<S> {
+        void aceptar(S resultado) throws Exception;
+    }
+
+    private final Transformacion<E, S> transformacion;
+    private final Consumidor<S> consumidor;
+    private final int entradasPorLote;
+    private final ExecutorService pool;
+    private final BlockingQueue<CompletableFuture<List<S>>> enVuelo;
+    private final CompletableFuture<List<S>> fin = new CompletableFuture<>();
+    private final Thread hiloConsumidor;
+
+    private List<E> lote;
+    private volatile Exception error;
+
+    public OrderedParallelMapper(int hilos, int entradasPorLote, Transformacion<E, S> transformacion, Consumidor<S> consumidor) {
+        this.transformacion = transformacion;
+        this.consumidor = consumidor;
+        this.entradasPorLote = entradasPorLote;
+        this.lote = new ArrayList<>(entradasPorLote);
+        this.enVuelo = new ArrayBlockingQueue<>(hilos * 2);
+
+        AtomicInteger numero = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "transformacion-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.hiloConsumidor = new Thread(this::consumir, "consumidor-ordenado");
+        this.hiloConsumidor.setDaemon(true);
+        this.hiloConsumidor.start();
+    }
+
+    public OrderedParallelMapper(Transformacion<E, S> transformacion, Consumidor<S> consumidor) {
+        this(Runtime.getRuntime().availableProcessors(), 256, transformacion, consumidor);
+    }
+
+    public void enviar(E entrada) throws Exception {
+        if (error != null) throw error;
+        lote.add(entrada);
+        if (lote.size() >= entradasPorLote) despacharLote();
+    }
+
+    // Envía lo que quede, espera a que el consumidor termine y relanza el primer error (de transformación o de consumo)
+    public void terminar() throws Exception {
+        if (!lote.isEmpty()) despacharLote();
+        enVuelo.put(fin);
+        hiloConsumidor.join();
+        pool.shutdown();
+        if (error != null) throw error;
+    }
+
+    // Si no se llegó a terminar() (excepción en el productor), no deja hilos esperando
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        hiloConsumidor.interrupt();
+    }
+
+    private void despacharLote() throws InterruptedException {
+        List<E> entradas = lote;
+        lote = new ArrayList<>(entradasPorLote);
+        CompletableFuture<List<S>> futuro = new CompletableFuture<>();
+        pool.execute(() -> {
+            try {
+                List<S> resultados = new ArrayList<>(entradas.size());
+                for (E entrada : entradas) resultados.add(transformacion.aplicar(entrada));
+                futuro.complete(resultados);
+            } catch (Throwable t) {
+                futuro.completeExceptionally(t);
+            }
+        });
+        enVuelo.put(futuro);
+    }
+
+    private void consumir() {
+        try {
+            while (true) {
+                CompletableFuture<List<S>> futuro = enVuelo.take();
+                if (futuro == fin) return;
+                try {
+                    List<S> resultados = futuro.get();
+                    // Tras un error se siguen vaciando los lotes (sin consumirlos) para no bloquear al productor
+                    if (error != null) continue;
+                    for (S resultado : resultados) consumidor.aceptar(resultado);
+                } catch (ExecutionException e) {
+                    if (error == null) error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    if (error == null) error = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
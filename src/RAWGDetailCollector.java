@@ -1,18 +1,18 @@
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RAWGDetailCollector {
 
@@ -33,39 +33,48 @@ public class RAWGDetailCollector {
             "cdb2e34c650e468a89cde2d5aa7f1a69",
             "d23bb60d7d3d4f1f87157ebc39a9dd4b"
     };
-    private static int currentKeyIndex = 0;
 
-    private static String getApiKey() {
-        return API_KEYS[currentKeyIndex];
-    }
+    // Cada clave trabaja en paralelo con su propio presupuesto (ver ApiKeyPool)
+    private static final double PETICIONES_POR_SEGUNDO_POR_CLAVE = 1.0;
+    private static final int RAFAGA_POR_CLAVE = 2;
+    // Juegos en vuelo por clave: mientras uno espera la red, otro ya puede gastar presupuesto
+    private static final int HILOS_POR_CLAVE = 2;
 
-    private static void rotateApiKey() {
-        currentKeyIndex = (currentKeyIndex + 1) % API_KEYS.length;
-        System.out.println("🔄 Rotando API Key... Nueva clave: " + getApiKey().substring(0, 8) + "...");
-    }
+    // Hilos para la segunda petición de cada juego (stores), en paralelo con la del detalle
+    private static final ExecutorService PETICIONES_STORES = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "rawg-stores");
+        hilo.setDaemon(true);
+        return hilo;
+    });
 
     private static final String DB_FILE = "rawg_raw.sqlite";
-    private static final int DIAS_COOLDOWN_VACIOS = 3;
-    
-    // Regex pre-compilada para rendimiento
-    private static final Pattern PATTERN_PLATFORMS = Pattern.compile("\"parent_platforms\":\\s*\\[(.*?)\\]");
+    // -Drawg.apiUrl apunta el collector a otro servidor (p. ej. HttpReplayServer)
+    private static final String RAWG_API_URL = System.getProperty("rawg.apiUrl", "https://api.rawg.io/api");
+
+    // Escritura por lotes desde los hilos de las claves
+    private static final int FILAS_POR_TRANSACCION = 100;
+    private static final long MS_POR_TRANSACCION = 2000;
+    private static final int CAPACIDAD_COLA_ESCRITURA = 500;
+
+    private static SqliteBatchWriter escritor;
 
     private static class GameTask {
         int id;
         boolean tieneDetalle;
-        boolean esError404;
-        boolean esReintentoVacio;
         boolean descripcionVacia;
         boolean esSoloPC;
 
-        public GameTask(int id, boolean tieneDetalle, boolean esError404, boolean esReintentoVacio, boolean descripcionVacia, boolean esSoloPC) {
+        public GameTask(int id, boolean tieneDetalle, boolean descripcionVacia, boolean esSoloPC) {
             this.id = id;
             this.tieneDetalle = tieneDetalle;
-            this.esError404 = esError404;
-            this.esReintentoVacio = esReintentoVacio;
             this.descripcionVacia = descripcionVacia;
             this.esSoloPC = esSoloPC;
         }
+
+        @Override
+        public String toString() {
+            return "ID " + id;
+        }
     }
     
     private static class Stats {
@@ -85,13 +94,10 @@ public class RAWGDetailCollector {
             System.out.println("📊 Analizando base de datos existente...");
             Stats statsProcesados = analizarJuegosProcesados();
             
-            // 2. Obtener y clasificar lo pendiente
-            System.out.println("📋 Obteniendo lista de pendientes...");
-            List<GameTask> pendientes = obtenerTareasPendientes();
-            
-            // Calcular estadísticas de pendientes
-            long pendientesSoloPC = pendientes.stream().filter(t -> t.esSoloPC).count();
-            long pendientesPrioridad = pendientes.size() - pendientesSoloPC;
+            // 2. Contar lo pendiente (las tareas se leen después, por páginas, mientras se descargan)
+            long ahora = RAWGStatusFlags.ahoraEpoch();
+            System.out.println("📋 Contando pendientes...");
+            Stats statsPendientes = contarPendientes(ahora);
 
             // 3. MOSTRAR DASHBOARD
             System.out.println("\n=================================================");
@@ -102,57 +108,54 @@ public class RAWGDetailCollector {
             System.out.println(String.format("| ✅ PROCESADOS   | %-10d | %-13d | %-10d |", 
                 statsProcesados.total, statsProcesados.consoleMulti, statsProcesados.pcOnly));
             System.out.println(String.format("| ⏳ PENDIENTES   | %-10d | %-13d | %-10d |", 
-                pendientes.size(), pendientesPrioridad, pendientesSoloPC));
+                statsPendientes.total, statsPendientes.consoleMulti, statsPendientes.pcOnly));
             System.out.println("=================================================\n");
 
-            // ORDENAR: Prioridad a Consolas/Multi
-            Collections.sort(pendientes, new Comparator<GameTask>() {
-                @Override
-                public int compare(GameTask o1, GameTask o2) {
-                    if (o1.esSoloPC && !o2.esSoloPC) return 1;
-                    if (!o1.esSoloPC && o2.esSoloPC) return -1;
-                    return 0;
-                }
-            });
+            // Las tareas se reparten entre las API Keys: cada clave descarga en paralelo con su propio presupuesto
+            ApiKeyPool pool = new ApiKeyPool(API_KEYS, PETICIONES_POR_SEGUNDO_POR_CLAVE, RAFAGA_POR_CLAVE, HILOS_POR_CLAVE);
+            System.out.println("🔑 API Keys en paralelo: " + API_KEYS.length + " (" + PETICIONES_POR_SEGUNDO_POR_CLAVE +
+                               " req/s y " + HILOS_POR_CLAVE + " juegos en vuelo cada una).");
+            AtomicInteger procesados = new AtomicInteger();
+            int total = statsPendientes.total;
 
-            int procesados = 0;
-            for (GameTask tarea : pendientes) {
-                try {
-                    if (tarea.esError404) continue;
+            escritor = new SqliteBatchWriter(DB_FILE, FILAS_POR_TRANSACCION, MS_POR_TRANSACCION, CAPACIDAD_COLA_ESCRITURA);
+            ColaPendientes pendientes = new ColaPendientes(ahora);
+            try {
+                pool.procesar(pendientes, (tarea, clave) -> {
+                    String tipo = tarea.esSoloPC ? "PC" : "CONSOLA";
 
                     if (tarea.tieneDetalle) {
                         if (tarea.descripcionVacia) {
-                            System.out.println("🔄 [" + procesados + "/" + pendientes.size() + "] ID " + tarea.id + ": Descripción vacía. Reintentando...");
-                            procesarDescargaCompleta(tarea.id);
-                            procesados++;
-                            Thread.sleep(1000);
-                            continue; 
+                            System.out.println("🔄 [" + procesados.get() + "/" + total + "] ID " + tarea.id + ": Descripción vacía. Reintentando...");
+                            procesarDescargaCompleta(tarea.id, tarea.esSoloPC, clave);
+                            procesados.incrementAndGet();
+                            return;
                         }
 
-                        String motivo = tarea.esReintentoVacio ? "Reintento Stores" : "Nuevo Stores";
-                        String jsonStores = descargarStoresJuego(tarea.id);
-                        
-                        if (jsonStores == null || "404".equals(jsonStores)) jsonStores = "{\"results\":[]}";
+                        String jsonStores = descargarStoresJuego(tarea.id, clave);
+                        if (jsonStores == null) {
+                            // Error de API (429/5xx agotados): no se marca como sin stores, sigue pendiente para la próxima ejecución
+                            int n = procesados.incrementAndGet();
+                            System.err.println("⚠️ [" + n + "/" + total + "] Skip stores ID " + tarea.id + " (Error API).");
+                            return;
+                        }
+                        if ("404".equals(jsonStores)) jsonStores = RAWGStatusFlags.STORES_VACIOS;
 
                         actualizarStores(tarea.id, jsonStores);
-                        procesados++;
-                        
-                        String tipo = tarea.esSoloPC ? "PC" : "CONSOLA";
-                        System.out.println("✅ [" + procesados + "/" + pendientes.size() + "] Stores (" + tipo + "): ID " + tarea.id);
-                        
-                        Thread.sleep(1000);
+                        int n = procesados.incrementAndGet();
+                        System.out.println("✅ [" + n + "/" + total + "] Stores (" + tipo + "): ID " + tarea.id);
                     } else {
-                        procesarDescargaCompleta(tarea.id);
-                        procesados++;
-                        String tipo = tarea.esSoloPC ? "PC" : "CONSOLA";
-                        System.out.println("✅ [" + procesados + "/" + pendientes.size() + "] Full (" + tipo + "): ID " + tarea.id);
-                        Thread.sleep(1000);
+                        procesarDescargaCompleta(tarea.id, tarea.esSoloPC, clave);
+                        int n = procesados.incrementAndGet();
+                        System.out.println("✅ [" + n + "/" + total + "] Full (" + tipo + "): ID " + tarea.id);
                     }
-
-                } catch (Exception e) {
-                    System.err.println("❌ Error en ID " + tarea.id + ": " + e.getMessage());
-                }
+                });
+            } finally {
+                pendientes.cerrar();
+                escritor.close();
             }
+            System.out.println("📈 Peticiones: " + pool.totalPeticiones() + " | Filas escritas: " + escritor.getFilasEscritas() +
+                               " (fallidas: " + escritor.getFilasFallidas() + ")");
             
             System.out.println("🏁 Proceso finalizado.");
 
@@ -161,48 +164,24 @@ public class RAWGDetailCollector {
         }
     }
 
-    // --- LÓGICA DE CLASIFICACIÓN ---
-
-    private static boolean esSoloPC(String jsonBasic) {
-        if (jsonBasic == null) return false; // Ante la duda, priorizar (no es solo PC)
-        
-        Matcher m = PATTERN_PLATFORMS.matcher(jsonBasic);
-        if (m.find()) {
-            String platformsContent = m.group(1);
-            
-            int count = 0;
-            int idx = 0;
-            while ((idx = platformsContent.indexOf("\"slug\":", idx)) != -1) {
-                count++;
-                idx += 7;
-            }
-            
-            boolean tienePC = platformsContent.contains("\"slug\":\"pc\"");
-            
-            // Es Solo PC si: Tiene 1 plataforma Y esa es PC
-            return (count == 1 && tienePC);
-        }
-        return false; // Si no tiene plataformas definidas, lo tratamos como prioritario por si acaso
-    }
-
     // --- BASE DE DATOS Y ANÁLISIS ---
 
+    // Recuento sobre el índice de is_pc_only: no se leen ni se descomprimen los JSON
     private static Stats analizarJuegosProcesados() {
         Stats stats = new Stats();
-        String sql = "SELECT r.json_data FROM rawg_details_data d " +
-                     "JOIN rawg_raw_data r ON d.game_id = r.game_id " +
-                     "WHERE d.json_full IS NOT NULL";
-                     
+        String sql = "SELECT is_pc_only, COUNT(*) AS juegos FROM rawg_details_data INDEXED BY idx_rawg_details_pc_only GROUP BY is_pc_only";
+
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            
+
             while (rs.next()) {
-                stats.total++;
-                if (esSoloPC(rs.getString("json_data"))) {
-                    stats.pcOnly++;
+                int juegos = rs.getInt("juegos");
+                stats.total += juegos;
+                if (rs.getInt("is_pc_only") == 1) {
+                    stats.pcOnly += juegos;
                 } else {
-                    stats.consoleMulti++;
+                    stats.consoleMulti += juegos;
                 }
             }
         } catch (Exception e) {
@@ -211,73 +190,133 @@ public class RAWGDetailCollector {
         return stats;
     }
 
-    private static List<GameTask> obtenerTareasPendientes() {
-        List<GameTask> tareas = new ArrayList<>();
-        
-        String sql = "SELECT r.game_id, r.json_data, " +
-                     "d.json_full, d.json_stores, d.fecha_sync, " +
-                     "CASE WHEN d.json_full IS NOT NULL THEN 1 ELSE 0 END as tiene_detalle, " +
-                     "CASE WHEN d.json_full LIKE '%\"error\":\"404_not_found\"%' THEN 1 ELSE 0 END as es_error " +
-                     "FROM rawg_raw_data r " +
-                     "LEFT JOIN rawg_details_data d ON r.game_id = d.game_id " +
-                     "WHERE " +
-                     "d.game_id IS NULL " +
-                     "OR d.json_stores IS NULL " +
-                     "OR ( (d.json_stores LIKE '%\"results\":[]%' OR d.json_stores = '[]') " +
-                     "     AND d.fecha_sync < datetime('now', '-" + DIAS_COOLDOWN_VACIOS + " days') )" +
-                     "OR ( (d.json_full LIKE '%\"description\":\"\"%' OR d.json_full LIKE '%\"description_raw\":\"\"%') " +
-                     "     AND d.fecha_sync < datetime('now', '-" + DIAS_COOLDOWN_VACIOS + " days') )";
-        
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                if (rs.getBoolean("es_error")) continue;
+    // Pendiente = sin detalle todavía, o con next_retry_at vencido (stores/descripción vacíos pasado el cooldown).
+    // Los 404 y los juegos completos tienen next_retry_at NULL y no entran en el índice parcial.
+    // Orden de prioridad: Consolas/Multi primero; game_id desempata y sirve de clave para paginar.
+    private static final String SQL_PENDIENTES_DESDE =
+            "SELECT r.game_id, 0 AS tiene_detalle, 0 AS desc_empty, r.is_pc_only " +
+            "FROM rawg_raw_data r INDEXED BY idx_rawg_raw_pc_only " +
+            "WHERE (r.is_pc_only, r.game_id) > (?, ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM rawg_details_data d WHERE d.game_id = r.game_id) " +
+            "UNION ALL " +
+            "SELECT d.game_id, 1 AS tiene_detalle, d.desc_empty, d.is_pc_only " +
+            "FROM rawg_details_data d INDEXED BY idx_rawg_details_retry " +
+            "WHERE d.next_retry_at IS NOT NULL AND d.next_retry_at <= ? AND (d.is_pc_only, d.game_id) > (?, ?) " +
+            "ORDER BY is_pc_only, game_id LIMIT ?";
+
+    private static Stats contarPendientes(long ahora) {
+        Stats stats = new Stats();
+        String sql = "SELECT is_pc_only, COUNT(*) AS juegos FROM (" +
+                     "SELECT r.is_pc_only FROM rawg_raw_data r INDEXED BY idx_rawg_raw_pc_only " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM rawg_details_data d WHERE d.game_id = r.game_id) " +
+                     "UNION ALL " +
+                     "SELECT d.is_pc_only FROM rawg_details_data d INDEXED BY idx_rawg_details_retry " +
+                     "WHERE d.next_retry_at IS NOT NULL AND d.next_retry_at <= ?) " +
+                     "GROUP BY is_pc_only";
 
-                String jsonStores = rs.getString("json_stores");
-                String jsonFull = rs.getString("json_full");
-                
-                boolean esVacioStores = (jsonStores != null && (jsonStores.contains("\"results\":[]") || jsonStores.equals("[]")));
-                boolean esVacioDesc = (jsonFull != null && (jsonFull.contains("\"description\":\"\"") || jsonFull.contains("\"description_raw\":\"\"")));
-
-                tareas.add(new GameTask(
-                    rs.getInt("game_id"),
-                    rs.getBoolean("tiene_detalle"),
-                    rs.getBoolean("es_error"),
-                    esVacioStores,
-                    esVacioDesc,
-                    esSoloPC(rs.getString("json_data"))
-                ));
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, ahora);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int juegos = rs.getInt("juegos");
+                    stats.total += juegos;
+                    if (rs.getInt("is_pc_only") == 1) {
+                        stats.pcOnly += juegos;
+                    } else {
+                        stats.consoleMulti += juegos;
+                    }
+                }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            System.err.println("⚠️ Error contando pendientes: " + e.getMessage());
         }
-        return tareas;
+        return stats;
     }
 
-    private static void setupDatabase() {
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute("PRAGMA journal_mode=WAL;");
-            stmt.execute("CREATE TABLE IF NOT EXISTS rawg_details_data (" +
-                         "game_id INTEGER PRIMARY KEY, " +
-                         "json_full TEXT NOT NULL, " +
-                         "fecha_sync TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
-            
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(rawg_details_data);");
-            boolean storesColumnExists = false;
-            while (rs.next()) {
-                if ("json_stores".equals(rs.getString("name"))) {
-                    storesColumnExists = true;
-                    break;
+    // Cola acotada de tareas alimentada por un hilo lector que pagina SQL_PENDIENTES_DESDE por clave (is_pc_only, game_id).
+    // La descarga empieza con la primera página y la memoria no depende del tamaño del backlog.
+    // Paginar por clave y no por OFFSET: las tareas ya procesadas dejan de ser pendientes mientras se lee.
+    private static class ColaPendientes implements ApiKeyPool.Fuente<GameTask> {
+        private static final int TAREAS_POR_PAGINA = 500;
+        private static final int CAPACIDAD = 2000;
+        private static final GameTask FIN = new GameTask(-1, false, false, false);
+
+        private final BlockingQueue<GameTask> cola = new ArrayBlockingQueue<>(CAPACIDAD);
+        private final long ahora;
+        private final Thread lector;
+
+        ColaPendientes(long ahora) {
+            this.ahora = ahora;
+            this.lector = new Thread(this::leer, "rawg-pendientes");
+            this.lector.setDaemon(true);
+            this.lector.start();
+        }
+
+        private void leer() {
+            int ultimoSoloPC = -1;
+            int ultimoId = -1;
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+                 PreparedStatement ps = conn.prepareStatement(SQL_PENDIENTES_DESDE)) {
+                while (true) {
+                    ps.setInt(1, ultimoSoloPC);
+                    ps.setInt(2, ultimoId);
+                    ps.setLong(3, ahora);
+                    ps.setInt(4, ultimoSoloPC);
+                    ps.setInt(5, ultimoId);
+                    ps.setInt(6, TAREAS_POR_PAGINA);
+                    // La página se copia antes de bloquear en la cola, para no retener el cursor abierto
+                    List<GameTask> pagina = new ArrayList<>(TAREAS_POR_PAGINA);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            pagina.add(new GameTask(
+                                rs.getInt("game_id"),
+                                rs.getBoolean("tiene_detalle"),
+                                rs.getInt("desc_empty") == 1,
+                                rs.getInt("is_pc_only") == 1
+                            ));
+                        }
+                    }
+                    for (GameTask tarea : pagina) cola.put(tarea);
+                    if (pagina.size() < TAREAS_POR_PAGINA) break;
+                    GameTask ultima = pagina.get(pagina.size() - 1);
+                    ultimoSoloPC = ultima.esSoloPC ? 1 : 0;
+                    ultimoId = ultima.id;
                 }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Error leyendo pendientes: " + e.getMessage());
             }
-            rs.close();
+            try {
+                cola.put(FIN);
+            } catch (InterruptedException e) {
+                // cerrar(): ya nadie consume
+            }
+        }
 
-            if (!storesColumnExists) {
-                stmt.execute("ALTER TABLE rawg_details_data ADD COLUMN json_stores TEXT;");
+        @Override
+        public GameTask siguiente() throws InterruptedException {
+            GameTask tarea = cola.take();
+            if (tarea == FIN) {
+                cola.put(FIN); // Para que los demás hilos también vean el final
+                return null;
             }
+            return tarea;
+        }
+
+        // Si el pool termina antes (sin claves válidas) el lector no se queda bloqueado en la cola
+        void cerrar() {
+            lector.interrupt();
+        }
+    }
+
+    private static void setupDatabase() {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL;");
+            // Tablas, columnas de estado e índices (y su relleno inicial en bases antiguas)
+            RAWGStatusFlags.asegurarEsquema(conn);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -285,12 +324,26 @@ public class RAWGDetailCollector {
 
     // --- DESCARGAS Y GUARDADO ---
 
-    private static void procesarDescargaCompleta(int gameId) {
-        String jsonDetalle = descargarDetalleJuego(gameId);
+    // Detalle y stores se piden a la vez: la latencia del juego es la de la petición más lenta, no la suma
+    private static void procesarDescargaCompleta(int gameId, boolean esSoloPC, ApiKeyPool.Clave clave) throws Exception {
+        CompletableFuture<String> futuroStores = CompletableFuture.supplyAsync(() -> {
+            try {
+                return descargarStoresJuego(gameId, clave);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, PETICIONES_STORES);
+        String jsonDetalle;
+        String jsonStores;
+        try {
+            jsonDetalle = descargarDetalleJuego(gameId, clave);
+        } finally {
+            jsonStores = esperarStores(futuroStores);
+        }
 
         if ("404".equals(jsonDetalle)) {
             System.err.println("⚠️ ID " + gameId + " no encontrado (404). Marcando error.");
-            guardarNuevoCompleto(gameId, "{\"error\":\"404_not_found\"}", "{\"results\":[]}");
+            guardarNuevoCompleto(gameId, RAWGStatusFlags.JSON_404, RAWGStatusFlags.STORES_VACIOS, esSoloPC);
             return;
         }
         
@@ -299,88 +352,104 @@ public class RAWGDetailCollector {
              return;
         }
 
-        String jsonStores = descargarStoresJuego(gameId);
-        if (jsonStores == null || "404".equals(jsonStores)) {
-            jsonStores = "{\"results\":[]}";
+        if (jsonStores == null) {
+            // Sin stores por error de API no se guarda: con STORES_VACIOS el juego esperaría el enfriamiento de stores vacíos
+            System.err.println("⚠️ Skip ID " + gameId + " (Error API en stores).");
+            return;
+        }
+        if ("404".equals(jsonStores)) {
+            jsonStores = RAWGStatusFlags.STORES_VACIOS;
         }
-        guardarNuevoCompleto(gameId, jsonDetalle, jsonStores);
+        guardarNuevoCompleto(gameId, jsonDetalle, jsonStores, esSoloPC);
     }
 
-    private static String descargarDetalleJuego(int gameId) {
-        String urlString = "https://api.rawg.io/api/games/" + gameId + "?key=" + getApiKey();
-        return peticionHttpConReintento(urlString);
+    // Devuelve el resultado de la petición de stores o relanza su excepción original (p. ej. ClaveInvalidaException)
+    private static String esperarStores(CompletableFuture<String> futuroStores) throws Exception {
+        try {
+            return futuroStores.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (causa instanceof Exception) throw (Exception) causa;
+            throw e;
+        }
     }
 
-    private static String descargarStoresJuego(int gameId) {
-        String urlString = "https://api.rawg.io/api/games/" + gameId + "/stores?key=" + getApiKey();
-        return peticionHttpConReintento(urlString);
+    private static String descargarDetalleJuego(int gameId, ApiKeyPool.Clave clave) throws Exception {
+        String urlString = RAWG_API_URL + "/games/" + gameId + "?key=" + clave.getValor();
+        return peticionHttpConReintento(urlString, clave);
     }
 
-    private static void guardarNuevoCompleto(int gameId, String jsonDetail, String jsonStores) {
-        String sql = "INSERT OR REPLACE INTO rawg_details_data(game_id, json_full, json_stores, fecha_sync) VALUES(?,?,?, CURRENT_TIMESTAMP)";
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, gameId);
-            pstmt.setString(2, jsonDetail);
-            pstmt.setString(3, jsonStores);
-            pstmt.executeUpdate();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private static String descargarStoresJuego(int gameId, ApiKeyPool.Clave clave) throws Exception {
+        String urlString = RAWG_API_URL + "/games/" + gameId + "/stores?key=" + clave.getValor();
+        return peticionHttpConReintento(urlString, clave);
     }
 
-    private static void actualizarStores(int gameId, String jsonStores) {
-        String sql = "UPDATE rawg_details_data SET json_stores = ?, fecha_sync = CURRENT_TIMESTAMP WHERE game_id = ?";
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, jsonStores);
-            pstmt.setInt(2, gameId);
-            pstmt.executeUpdate();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    // Las escrituras pasan por el escritor por lotes (una sola conexión para todos los hilos).
+    // Los flags de estado se calculan aquí, con el JSON aún en memoria y sin comprimir.
+    private static void guardarNuevoCompleto(int gameId, String jsonDetail, String jsonStores, boolean esSoloPC) throws InterruptedException {
+        boolean es404 = RAWGStatusFlags.esError404(jsonDetail);
+        boolean vacioStores = RAWGStatusFlags.storesVacios(jsonStores);
+        boolean vacioDesc = RAWGStatusFlags.descripcionVacia(jsonDetail);
+        escritor.encolar("INSERT OR REPLACE INTO rawg_details_data(game_id, json_full, json_stores, fecha_sync, " +
+                         "is_404, stores_empty, desc_empty, is_pc_only, next_retry_at) VALUES(?,?,?, CURRENT_TIMESTAMP, ?,?,?,?,?)",
+                gameId, JsonStorage.codificar(jsonDetail), JsonStorage.codificar(jsonStores),
+                es404 ? 1 : 0, vacioStores ? 1 : 0, vacioDesc ? 1 : 0, esSoloPC ? 1 : 0,
+                RAWGStatusFlags.siguienteReintento(es404, vacioStores, vacioDesc, RAWGStatusFlags.ahoraEpoch()));
+    }
+
+    // Solo se llama con la descripción ya correcta: el reintento depende únicamente de los stores
+    private static void actualizarStores(int gameId, String jsonStores) throws InterruptedException {
+        boolean vacioStores = RAWGStatusFlags.storesVacios(jsonStores);
+        escritor.encolar("UPDATE rawg_details_data SET json_stores = ?, fecha_sync = CURRENT_TIMESTAMP, stores_empty = ?, next_retry_at = ? " +
+                         "WHERE game_id = ?",
+                JsonStorage.codificar(jsonStores), vacioStores ? 1 : 0,
+                RAWGStatusFlags.siguienteReintento(false, vacioStores, false, RAWGStatusFlags.ahoraEpoch()), gameId);
     }
 
-    private static String peticionHttpConReintento(String urlString) {
+    // Cada intento consume presupuesto de la clave. Un 401 la retira del pool y la tarea pasa a otra clave.
+    // Un 429 o 5xx pausa la clave entera (todos sus hilos), igual que en RAWGRawCollector.
+    // Devuelve null si se agotan los intentos: el llamador deja el juego pendiente.
+    private static String peticionHttpConReintento(String urlString, ApiKeyPool.Clave clave) throws Exception {
         int intentos = 0;
         while (true) {
+            clave.adquirir();
             try {
-                String urlConClaveActual = urlString.replaceAll("key=[^&]+", "key=" + getApiKey());
-                return peticionHttp(urlConClaveActual);
+                return peticionHttp(urlString);
+            } catch (InterruptedException e) {
+                throw e;
             } catch (Exception e) {
-                if (e.getMessage().contains("401")) {
-                    System.err.println("⚠️ Error 401 (Unauthorized). Rotando API Key...");
-                    rotateApiKey();
-                    intentos = 0;
-                    continue;
+                boolean saturado = false;
+                if (e instanceof HttpPool.ErrorHttpException) {
+                    int codigo = ((HttpPool.ErrorHttpException) e).getCodigo();
+                    if (codigo == 401) {
+                        throw new ApiKeyPool.ClaveInvalidaException("Error 401 (Unauthorized)");
+                    }
+                    if (codigo == 404) return "404";
+                    saturado = codigo == 429 || codigo >= 500;
                 }
-                if (e.getMessage().contains("404")) return "404";
                 
                 intentos++;
                 if (intentos > 5) {
                     System.err.println("❌ Abortando " + urlString);
                     return null;
                 }
-                try { Thread.sleep(2000); } catch (InterruptedException ie) {}
+                if (saturado) {
+                    System.out.println("⏳ Servidor saturado o Rate Limit [" + clave.abreviada() + "]. Pausando esta clave 60s...");
+                    clave.pausar(60000);
+                } else {
+                    Thread.sleep(2000);
+                }
             }
         }
     }
 
+    // HttpPool: HTTP/2 cuando RAWG lo negocia, así detalle y stores del mismo juego viajan multiplexados por la misma conexión
     private static String peticionHttp(String urlString) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) new URL(urlString).openConnection();
-        conn.setRequestMethod("GET");
-        conn.setRequestProperty("User-Agent", "SteamDataScraper/1.0");
-        
-        int code = conn.getResponseCode();
-        if (code == 200) {
-            try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream(), "utf-8"))) {
-                StringBuilder content = new StringBuilder();
-                String line;
-                while ((line = in.readLine()) != null) content.append(line);
-                return content.toString();
+        try (HttpPool.Respuesta respuesta = HttpPool.get(urlString)) {
+            if (respuesta.getCodigo() == 200) {
+                return respuesta.texto();
             }
-        } else {
-            throw new Exception("HTTP " + code);
+            throw new HttpPool.ErrorHttpException(respuesta.getCodigo());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+// Decodificador en streaming de las páginas de /games de RAWG.
+// Recorre la respuesta con el JsonParser de Jackson directamente sobre el InputStream, en una sola pasada:
+// cada objeto de "results" se copia evento a evento a un buffer reutilizado (bytes UTF-8 compactos)
+// y a la vez se leen su "id" y su "updated" de primer nivel. No se construye el String de la página,
+// no se trocea por llaves ni se aplican regex por objeto.
+// {"count":123,"next":"https://...","previous":null,"results":[{"id":1,"updated":"2019-09-22T14:25:17",...}]}
+public class RAWGPageDecoder {
+
+    // Sin separador entre valores raíz: el generador se reutiliza para todos los juegos de la página
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder().rootValueSeparator((String) null).build();
+
+    @FunctionalInterface
+    public interface Consumidor {
+        void aceptar(int id, String updated, byte[] json) throws Exception;
+    }
+
+    public static class Pagina {
+        long count = -1;
+        boolean hayMas = false; // "next" no es null
+        int juegos = 0;
+    }
+
+    private RAWGPageDecoder() {}
+
+    // Con consumidor null solo se leen count y next (los resultados se saltan sin copiarlos)
+    public static Pagina leer(InputStream in, Consumidor consumidor) throws Exception {
+        Pagina pagina = new Pagina();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        try (JsonParser parser = JSON_FACTORY.createParser(in);
+             JsonGenerator generador = JSON_FACTORY.createGenerator(buffer)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return pagina;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                JsonToken valor = parser.nextToken();
+                switch (campo) {
+                    case "count":
+                        pagina.count = parser.getValueAsLong(-1);
+                        break;
+                    case "next":
+                        pagina.hayMas = valor == JsonToken.VALUE_STRING && parser.getText().startsWith("http");
+                        break;
+                    case "results":
+                        if (valor == JsonToken.START_ARRAY && consumidor != null) {
+                            pagina.juegos = leerResultados(parser, generador, buffer, consumidor);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        return pagina;
+    }
+
+    private static int leerResultados(JsonParser parser, JsonGenerator generador, ByteArrayOutputStream buffer,
+                                      Consumidor consumidor) throws Exception {
+        int juegos = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            buffer.reset();
+            int id = -1;
+            String updated = null;
+            String campoRaiz = null;
+            int profundidad = 0;
+            do {
+                if (profundidad == 1) {
+                    if (token == JsonToken.FIELD_NAME) {
+                        campoRaiz = parser.getCurrentName();
+                    } else if ("id".equals(campoRaiz) && token == JsonToken.VALUE_NUMBER_INT) {
+                        id = parser.getIntValue();
+                    } else if ("updated".equals(campoRaiz) && token == JsonToken.VALUE_STRING) {
+                        updated = parser.getText();
+                    }
+                }
+                generador.copyCurrentEvent(parser);
+                if (token.isStructStart()) profundidad++;
+                else if (token.isStructEnd()) profundidad--;
+            } while (profundidad > 0 && (token = parser.nextToken()) != null);
+            generador.flush();
+
+            if (id > 0) {
+                consumidor.aceptar(id, updated, buffer.toByteArray());
+                juegos++;
+            }
+        }
+        return juegos;
+    }
+}
@@ -0,0 +1,92 @@
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Planificador de rangos de fechas para el llenado masivo de RAWG.
+// Parte de las decenas (1-10, 11-20, 21-fin de mes) y usa su "count":
+// - Decenas frías consecutivas se juntan en una ventana de varios meses mientras la suma no pase del objetivo,
+//   así las décadas de los 70-90 cuestan unas pocas páginas en vez de una petición por decena.
+// - Un rango caliente (más de LIMITE_RESULTADOS_RAWG) se parte por la mitad, recursivamente, hasta llegar a días sueltos:
+//   RAWG no pagina más allá de 10.000 resultados y el resto se perdería.
+public class RAWGRangePlanner {
+
+    // RAWG corta la paginación en la página 250 de 40 resultados
+    public static final int LIMITE_RESULTADOS_RAWG = 10000;
+
+    public static class Rango {
+        final String id;          // Decena suelta: su id ("2020-01-1"); ventana o trozo: "inicio,fin"
+        final LocalDate inicio;
+        final LocalDate fin;
+        long total;               // -1 si no se conoce
+        final List<String> decenas = new ArrayList<>(); // Decenas que quedan cubiertas al completar el rango
+
+        Rango(String id, LocalDate inicio, LocalDate fin, long total) {
+            this.id = id;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.total = total;
+        }
+
+        static Rango deDecena(String decenaId, LocalDate inicio, LocalDate fin, long total) {
+            Rango r = new Rango(decenaId, inicio, fin, total);
+            r.decenas.add(decenaId);
+            return r;
+        }
+
+        static Rango entre(LocalDate inicio, LocalDate fin, long total) {
+            return new Rango(inicio + "," + fin, inicio, fin, total);
+        }
+
+        // Parámetro dates de RAWG
+        String fechas() {
+            return inicio + "," + fin;
+        }
+
+        long dias() {
+            return ChronoUnit.DAYS.between(inicio, fin) + 1;
+        }
+
+        boolean excedeLimite() {
+            return total > LIMITE_RESULTADOS_RAWG;
+        }
+
+        // Dos mitades con total desconocido (hay que contarlas)
+        Rango[] partir() {
+            LocalDate finPrimera = inicio.plusDays(dias() / 2 - 1);
+            return new Rango[] {entre(inicio, finPrimera, -1), entre(finPrimera.plusDays(1), fin, -1)};
+        }
+
+        @Override
+        public String toString() {
+            return id + (decenas.size() > 1 ? " (" + decenas.size() + " decenas)" : "") + " [" + (total < 0 ? "?" : total) + " juegos]";
+        }
+    }
+
+    private RAWGRangePlanner() {}
+
+    // decenasPendientes en orden cronológico descendente (de la más reciente a la más antigua), como las recorre el collector.
+    // Devuelve las ventanas a descargar, en el mismo orden. Los rangos calientes se parten después, al descargarlos.
+    public static List<Rango> planificar(List<Rango> decenasPendientes, long objetivoPorRango, int mesesMaximosVentana) {
+        List<Rango> plan = new ArrayList<>();
+        Rango ventana = null;
+
+        for (Rango decena : decenasPendientes) {
+            boolean unible = ventana != null && decena.total >= 0 && ventana.total >= 0 &&
+                             decena.fin.plusDays(1).equals(ventana.inicio) &&
+                             ventana.total + decena.total <= objetivoPorRango &&
+                             !decena.inicio.isBefore(ventana.fin.minusMonths(mesesMaximosVentana).plusDays(1));
+            if (unible) {
+                Rango unida = Rango.entre(decena.inicio, ventana.fin, ventana.total + decena.total);
+                unida.decenas.addAll(ventana.decenas);
+                unida.decenas.addAll(decena.decenas);
+                ventana = unida;
+            } else {
+                if (ventana != null) plan.add(ventana);
+                ventana = decena;
+            }
+        }
+        if (ventana != null) plan.add(ventana);
+        return plan;
+    }
+}
@@ -1,19 +1,21 @@
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,21 +38,47 @@ public class RAWGRawCollector {
             "cdb2e34c650e468a89cde2d5aa7f1a69",
             "d23bb60d7d3d4f1f87157ebc39a9dd4b"
     };
-    private static int currentKeyIndex = 0;
 
-    private static String getApiKey() {
-        return API_KEYS[currentKeyIndex];
-    }
-
-    private static void rotateApiKey() {
-        currentKeyIndex = (currentKeyIndex + 1) % API_KEYS.length;
-        System.out.println("🔄 Rotando API Key... Nueva clave: " + getApiKey().substring(0, 8) + "...");
-    }
+    // Cada clave trabaja en paralelo con su propio presupuesto (ver ApiKeyPool)
+    private static final double PETICIONES_POR_SEGUNDO_POR_CLAVE = 1.0;
+    private static final int RAFAGA_POR_CLAVE = 2;
+    private static final ApiKeyPool POOL_CLAVES = new ApiKeyPool(API_KEYS, PETICIONES_POR_SEGUNDO_POR_CLAVE, RAFAGA_POR_CLAVE);
+    private static final Duration TIMEOUT_PETICION = Duration.ofSeconds(15);
+    // -Drawg.apiUrl apunta el collector a otro servidor (p. ej. HttpReplayServer)
+    private static final String RAWG_API_URL = System.getProperty("rawg.apiUrl", "https://api.rawg.io/api");
 
     private static final String DB_FILE = "rawg_raw.sqlite";
     
     private static final int UMBRAL_PARADA_TEMPRANA = 1000; 
 
+    // Escritura por lotes desde los hilos de las claves
+    private static final int FILAS_POR_TRANSACCION = 200;
+    private static final long MS_POR_TRANSACCION = 2000;
+    private static final int CAPACIDAD_COLA_ESCRITURA = 2000;
+
+    // Mantenimiento incremental por "updated"
+    private static final String CLAVE_ULTIMO_UPDATED = "ultimo_updated";
+    private static final long MARGEN_UPDATED_SEGUNDOS = 3600; // Solape con la ejecución anterior
+    private static final int DIAS_MANTENIMIENTO_SIN_MARCA = 7;
+
+    // Plan de rangos del llenado masivo (ver RAWGRangePlanner)
+    private static final long OBJETIVO_JUEGOS_POR_VENTANA = 2000; // ~50 páginas
+    private static final int MESES_MAXIMOS_VENTANA = 12;
+
+    // Conteo por decenas: caché con TTL
+    private static final int DIAS_CONTEO_RECIENTE = 365;
+    private static final int HORAS_TTL_CONTEO_RECIENTE = 24;
+    private static final int HORAS_TTL_CONTEO_ANTIGUO = 24 * 30;
+
+    // Valor de juegosProcesados para IDs ignorados o con "updated" ilegible: cualquier fecha real cuenta como actualización
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private static final Pattern PATTERN_UPDATED = Pattern.compile("\"updated\":\"([^\"]+)\"");
+
+    private static SqliteBatchWriter escritor;
+    // "count" de cada decena tras calcularTotalApi (caché vigente, refrescado o, si falló, el caducado)
+    private static final Map<String, Long> conteosDecena = new ConcurrentHashMap<>();
+
     public static void main(String[] args) {
         try {
             System.out.println("🚀 Iniciando RAWGRawCollector (MODO TOTAL: Todo el catálogo)...");
@@ -64,22 +92,31 @@ public class RAWGRawCollector {
 
             setupDatabase();
 
-            Map<Integer, String> juegosYaProcesados = cargarJuegosYaProcesados();
+            IntLongHashMap juegosYaProcesados = cargarJuegosYaProcesados();
             int totalEnBD = juegosYaProcesados.size();
             System.out.println("📚 Base de datos: " + totalEnBD + " juegos ya registrados.");
-            
-            long totalApiEstimado = calcularTotalApi();
-            if (totalApiEstimado > 0) {
-                System.out.println("📊 Total REAL en API (calculado): " + totalApiEstimado + " juegos.");
-            }
-            
-            if (totalEnBD < (totalApiEstimado * 0.98)) { // Aumentamos umbral al 98%
-                System.out.println("🚨 MODO LLENADO MASIVO (DECENAL): Se descargará por DECENAS para capturar el 100% del catálogo.");
-                descargarPorDecenas(juegosYaProcesados, totalEnBD, totalApiEstimado);
-            } else {
-                System.out.println("✅ MODO MANTENIMIENTO: Se descargarán las últimas actualizaciones.");
-                descargarRecientes(juegosYaProcesados);
+            System.out.println("🔑 API Keys en paralelo: " + API_KEYS.length + " (" + PETICIONES_POR_SEGUNDO_POR_CLAVE + " req/s cada una).");
+
+            // Todas las escrituras (juegos, progreso, conteos) pasan por un único escritor por lotes
+            escritor = new SqliteBatchWriter(DB_FILE, FILAS_POR_TRANSACCION, MS_POR_TRANSACCION, CAPACIDAD_COLA_ESCRITURA);
+            try {
+                long totalApiEstimado = calcularTotalApi();
+                if (totalApiEstimado > 0) {
+                    System.out.println("📊 Total REAL en API (calculado): " + totalApiEstimado + " juegos.");
+                }
+                
+                if (totalEnBD < (totalApiEstimado * 0.98)) { // Aumentamos umbral al 98%
+                    System.out.println("🚨 MODO LLENADO MASIVO (DECENAL): Se descargará por DECENAS para capturar el 100% del catálogo.");
+                    descargarPorDecenas(juegosYaProcesados, totalEnBD, totalApiEstimado);
+                } else {
+                    System.out.println("✅ MODO MANTENIMIENTO: Se descargarán las últimas actualizaciones.");
+                    descargarRecientes(juegosYaProcesados);
+                }
+            } finally {
+                escritor.close();
             }
+            System.out.println("🏁 Peticiones realizadas: " + POOL_CLAVES.totalPeticiones() + " | Filas escritas: " +
+                               escritor.getFilasEscritas() + " (fallidas: " + escritor.getFilasFallidas() + ")");
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -87,239 +124,413 @@ public class RAWGRawCollector {
     }
 
     // --- FASE DE CONTEO ---
-    private static long calcularTotalApi() {
-        System.out.println("🔍 Calculando el número total de juegos en la API (esto puede tardar ~30-40 mins la primera vez)...");
-        long total = 0;
-        int anioActual = LocalDate.now().getYear();
 
+    // Ítem del pool de conteo. toString() da el decena_id, para que los errores del pool digan qué decena falló.
+    private static class Decena {
+        final int anio;
+        final int mes;
+        final int decena;
+
+        Decena(int anio, int mes, int decena) {
+            this.anio = anio;
+            this.mes = mes;
+            this.decena = decena;
+        }
+
+        @Override
+        public String toString() {
+            return idDecena(anio, mes, decena);
+        }
+    }
+
+    // Los "count" de cada decena se guardan en rawg_count_cache. Solo se vuelven a pedir los caducados:
+    // las decenas recientes (donde RAWG sigue añadiendo juegos) a diario, las antiguas una vez al mes.
+    // Las peticiones que faltan se reparten entre las API Keys del pool.
+    private static long calcularTotalApi() throws InterruptedException {
+        Map<String, long[]> cache = cargarCacheConteos();
+        long ahora = System.currentTimeMillis() / 1000;
+        LocalDate hoy = LocalDate.now();
+        int anioActual = hoy.getYear();
+
+        long total = 0;
+        int vigentes = 0;
+        List<Decena> aRefrescar = new ArrayList<>();
         for (int anio = anioActual; anio >= 1970; anio--) {
             for (int mes = 12; mes >= 1; mes--) {
-                if (anio == anioActual && mes > LocalDate.now().getMonthValue()) continue;
+                if (anio == anioActual && mes > hoy.getMonthValue()) continue;
                 for (int decena = 3; decena >= 1; decena--) {
-                    System.out.printf("\r   -> Contando: %04d-%02d-%d", anio, mes, decena);
-                    total += obtenerCountDePeriodo(anio, mes, decena);
+                    long[] enCache = cache.get(idDecena(anio, mes, decena));
+                    if (enCache != null && ahora - enCache[1] < ttlConteo(anio, mes, decena, hoy)) {
+                        total += enCache[0];
+                        conteosDecena.put(idDecena(anio, mes, decena), enCache[0]);
+                        vigentes++;
+                    } else {
+                        aRefrescar.add(new Decena(anio, mes, decena));
+                    }
                 }
             }
         }
+
+        if (aRefrescar.isEmpty()) {
+            System.out.println("🔍 Conteo de la API desde caché (" + vigentes + " decenas).");
+            return total;
+        }
+        System.out.println("🔍 Contando juegos en la API: " + aRefrescar.size() + " decenas por refrescar (" +
+                           vigentes + " vigentes en caché)...");
+
+        AtomicLong totalRefrescado = new AtomicLong();
+        AtomicInteger hechas = new AtomicInteger();
+        POOL_CLAVES.procesar(aRefrescar, (periodo, clave) -> {
+            String decenaId = periodo.toString();
+            int count = obtenerCount(rangoDecena(periodo.anio, periodo.mes, periodo.decena), clave);
+            if (count >= 0) {
+                totalRefrescado.addAndGet(count);
+                conteosDecena.put(decenaId, (long) count);
+                escritor.encolar("INSERT OR REPLACE INTO rawg_count_cache(decena_id, total, fecha_conteo) VALUES(?,?,?)",
+                        decenaId, count, System.currentTimeMillis() / 1000);
+            } else {
+                // Sin respuesta: se usa el valor caducado si lo hay, y no se cachea
+                long[] enCache = cache.get(decenaId);
+                if (enCache != null) {
+                    totalRefrescado.addAndGet(enCache[0]);
+                    conteosDecena.put(decenaId, enCache[0]);
+                }
+            }
+            int n = hechas.incrementAndGet();
+            if (n % 20 == 0 || n == aRefrescar.size()) {
+                System.out.printf("\r   -> Contando: %d/%d decenas", n, aRefrescar.size());
+            }
+        });
         System.out.println(); // Salto de línea final
-        return total;
+        return total + totalRefrescado.get();
+    }
+
+    // Segundos que vale un conteo. Una decena reciente todavía recibe juegos nuevos en RAWG.
+    private static long ttlConteo(int anio, int mes, int decena, LocalDate hoy) {
+        YearMonth yearMonth = YearMonth.of(anio, mes);
+        LocalDate finDecena = decena == 3 ? yearMonth.atEndOfMonth() : yearMonth.atDay(decena * 10);
+        boolean reciente = !finDecena.isBefore(hoy.minusDays(DIAS_CONTEO_RECIENTE));
+        return (reciente ? HORAS_TTL_CONTEO_RECIENTE : HORAS_TTL_CONTEO_ANTIGUO) * 3600L;
+    }
+
+    // decena_id -> {total, fecha_conteo (epoch s)}
+    private static Map<String, long[]> cargarCacheConteos() {
+        Map<String, long[]> cache = new HashMap<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT decena_id, total, fecha_conteo FROM rawg_count_cache")) {
+            while (rs.next()) {
+                cache.put(rs.getString("decena_id"), new long[] {rs.getLong("total"), rs.getLong("fecha_conteo")});
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo leer la caché de conteos: " + e.getMessage());
+        }
+        return cache;
+    }
+
+    private static String idDecena(int anio, int mes, int decena) {
+        return String.format("%04d-%02d-%d", anio, mes, decena);
+    }
+
+    // "inicio,fin" del parámetro dates de RAWG para la decena: 1-10, 11-20, 21-fin de mes
+    private static String rangoDecena(int anio, int mes, int decena) {
+        YearMonth yearMonth = YearMonth.of(anio, mes);
+        if (decena == 1) return yearMonth.atDay(1) + "," + yearMonth.atDay(10);
+        if (decena == 2) return yearMonth.atDay(11) + "," + yearMonth.atDay(20);
+        return yearMonth.atDay(21) + "," + yearMonth.atEndOfMonth();
     }
 
     // --- ESTRATEGIA 1: MANTENIMIENTO (Recientes) ---
-    private static void descargarRecientes(Map<Integer, String> juegosProcesados) {
-        // ... (sin cambios)
+    // Recorre /games?ordering=-updated desde lo más reciente hasta la marca "ultimo_updated" de la ejecución anterior.
+    // Cada día desde la marca es una tarea (filtro updated=dia,dia) y los días se reparten entre las API Keys.
+    // procesarJuegoIndividual solo reescribe los juegos cuyo "updated" cambió.
+    private static void descargarRecientes(IntLongHashMap juegosProcesados) throws InterruptedException {
+        long marca = cargarEstadoSync(CLAVE_ULTIMO_UPDATED);
+        if (marca == SIN_FECHA) marca = maximoUpdatedGuardado();
+        LocalDate hoy = LocalDate.now(ZoneOffset.UTC);
+        LocalDate desde = marca == SIN_FECHA
+                ? hoy.minusDays(DIAS_MANTENIMIENTO_SIN_MARCA)
+                : LocalDate.ofEpochDay(Math.floorDiv(marca - MARGEN_UPDATED_SEGUNDOS, 86400L));
+        final long limite = marca == SIN_FECHA ? SIN_FECHA : marca - MARGEN_UPDATED_SEGUNDOS;
+
+        List<LocalDate> dias = new ArrayList<>();
+        for (LocalDate dia = hoy; !dia.isBefore(desde); dia = dia.minusDays(1)) dias.add(dia);
+        System.out.println("🔄 Actualizaciones desde " + desde + " (" + dias.size() + " días, " + API_KEYS.length + " claves)...");
+
+        AtomicLong nuevaMarca = new AtomicLong(marca);
+        AtomicInteger guardados = new AtomicInteger();
+        AtomicInteger diasFallidos = new AtomicInteger();
+        AtomicInteger diasPendientes = new AtomicInteger(dias.size());
+
+        POOL_CLAVES.procesar(dias, (dia, clave) -> {
+            int resultado = descargarActualizadosDelDia(dia, limite, juegosProcesados, nuevaMarca, clave);
+            if (resultado < 0) {
+                diasFallidos.incrementAndGet();
+                System.err.println("❌ Día " + dia + " sin completar.");
+            } else {
+                guardados.addAndGet(resultado);
+            }
+            diasPendientes.decrementAndGet();
+        });
+
+        System.out.println("✅ Mantenimiento: " + guardados.get() + " juegos nuevos o actualizados.");
+        if (diasFallidos.get() == 0 && diasPendientes.get() == 0 && nuevaMarca.get() != SIN_FECHA) {
+            guardarEstadoSync(CLAVE_ULTIMO_UPDATED, nuevaMarca.get());
+        } else {
+            System.out.println("⚠️ Mantenimiento incompleto: la marca de actualización no avanza.");
+        }
+    }
+
+    // Devuelve los juegos guardados o -1 si hubo un error
+    private static int descargarActualizadosDelDia(LocalDate dia, long limite, IntLongHashMap juegosProcesados,
+                                                   AtomicLong nuevaMarca, ApiKeyPool.Clave clave)
+            throws ApiKeyPool.ClaveInvalidaException, InterruptedException {
+        int guardadosDia = 0;
+        int page = 1;
+        while (true) {
+            try {
+                String urlString = RAWG_API_URL + "/games?updated=" + dia + "," + dia +
+                                   "&ordering=-updated&page_size=40&page=" + page;
+                // Los juegos se procesan según llegan del stream
+                int[] guardadosPagina = {0};
+                boolean[] marcaAlcanzada = {false};
+                RAWGPageDecoder.Pagina pagina = peticionHttpConReintentoInfinito(urlString, clave, (gameId, updated, json) -> {
+                    long epoch = epochFechaUpdate(updated);
+                    if (epoch != SIN_FECHA) {
+                        nuevaMarca.accumulateAndGet(epoch, Math::max);
+                        if (epoch < limite) marcaAlcanzada[0] = true;
+                    }
+                    if (procesarJuegoIndividual(gameId, updated, json, juegosProcesados)) guardadosPagina[0]++;
+                });
+                if (pagina == null) return guardadosDia;
+                guardadosDia += guardadosPagina[0];
+                if (pagina.juegos == 0) return guardadosDia;
+
+                if (page == 1 && pagina.count > RAWGRangePlanner.LIMITE_RESULTADOS_RAWG) {
+                    System.err.println("⚠️ El día " + dia + " tiene más de " + RAWGRangePlanner.LIMITE_RESULTADOS_RAWG +
+                                       " actualizaciones: RAWG solo pagina las primeras.");
+                }
+                // Ordenado por -updated: pasada la marca, el resto de páginas ya se procesó en la ejecución anterior
+                if (marcaAlcanzada[0] || !pagina.hayMas) return guardadosDia;
+                page++;
+            } catch (ApiKeyPool.ClaveInvalidaException | InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println("❌ Error en actualizaciones del " + dia + ": " + e.getMessage());
+                return -1;
+            }
+        }
+    }
+
+    // Sin marca guardada: el "updated" más reciente de la BD (lectura del extremo del índice)
+    private static long maximoUpdatedGuardado() {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(rawg_updated) FROM rawg_raw_data")) {
+            if (rs.next()) return epochFechaUpdate(rs.getString(1));
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo leer el último updated guardado: " + e.getMessage());
+        }
+        return SIN_FECHA;
+    }
+
+    private static long cargarEstadoSync(String clave) {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             PreparedStatement ps = conn.prepareStatement("SELECT valor FROM rawg_sync_state WHERE clave = ?")) {
+            ps.setString(1, clave);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getLong("valor");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo leer el estado de sincronización: " + e.getMessage());
+        }
+        return SIN_FECHA;
+    }
+
+    private static void guardarEstadoSync(String clave, long valor) throws InterruptedException {
+        escritor.encolar("INSERT OR REPLACE INTO rawg_sync_state(clave, valor) VALUES(?,?)", clave, valor);
     }
 
     // --- ESTRATEGIA 2: LLENADO MASIVO (Por Decenas) ---
-    private static void descargarPorDecenas(Map<Integer, String> juegosProcesados, int totalEnBD, long totalApi) {
+    // Las decenas pendientes se agrupan o parten según su "count" (RAWGRangePlanner) y los rangos resultantes
+    // se reparten entre las API Keys. El progreso se sigue guardando por decena: un rango completado marca
+    // como 9999 todas las decenas que cubre.
+    private static void descargarPorDecenas(IntLongHashMap juegosProcesados, int totalEnBD, long totalApi) throws InterruptedException {
         int anioActual = LocalDate.now().getYear();
         Map<String, Integer> progresoDecenal = cargarProgresoDecenal();
-        int totalGuardadosSesion = 0;
-        int totalEnBDAhora = totalEnBD;
+        AtomicInteger totalGuardadosSesion = new AtomicInteger();
+        AtomicInteger totalEnBDAhora = new AtomicInteger(totalEnBD);
 
+        List<RAWGRangePlanner.Rango> decenasPendientes = new ArrayList<>();
+        int completadas = 0;
         for (int anio = anioActual; anio >= 1970; anio--) {
             for (int mes = 12; mes >= 1; mes--) {
                 if (anio == anioActual && mes > LocalDate.now().getMonthValue()) continue;
                 for (int decena = 3; decena >= 1; decena--) {
-                    String decenaId = String.format("%04d-%02d-%d", anio, mes, decena);
-                    
+                    String decenaId = idDecena(anio, mes, decena);
                     if (progresoDecenal.getOrDefault(decenaId, 0) == 9999) {
-                        System.out.println("⏩ Decena " + decenaId + " ya completada. Saltando...");
-                        continue;
+                        completadas++;
+                    } else {
+                        String[] fechas = rangoDecena(anio, mes, decena).split(",");
+                        decenasPendientes.add(RAWGRangePlanner.Rango.deDecena(decenaId, LocalDate.parse(fechas[0]),
+                                LocalDate.parse(fechas[1]), conteosDecena.getOrDefault(decenaId, -1L)));
                     }
+                }
+            }
+        }
 
-                    System.out.println("\n📅 Procesando DECENA: " + decenaId + "...");
-                    int guardadosEnDecena = descargarPeriodoEspecifico(anio, mes, decena, juegosProcesados, progresoDecenal);
-                    
-                    if (guardadosEnDecena == -1) {
-                        System.out.println("🛑 Abortando proceso por error crítico.");
-                        return;
-                    }
-                    
-                    totalGuardadosSesion += guardadosEnDecena;
-                    totalEnBDAhora += guardadosEnDecena;
-                    
-                    marcarProgresoDecenal(decenaId, 9999);
-                    double porcentaje = totalApi > 0 ? ((double)totalEnBDAhora / totalApi) * 100.0 : 0;
-                    System.out.printf("✅ Decena %s completada. (Sesión: +%d | Total BD: %d / %d | %.2f%%)%n", 
-                                      decenaId, totalGuardadosSesion, totalEnBDAhora, totalApi, porcentaje);
+        List<RAWGRangePlanner.Rango> plan = RAWGRangePlanner.planificar(decenasPendientes, OBJETIVO_JUEGOS_POR_VENTANA, MESES_MAXIMOS_VENTANA);
+        int calientes = 0;
+        for (RAWGRangePlanner.Rango rango : plan) {
+            if (rango.excedeLimite()) calientes++;
+            registrarPlan(rango);
+        }
+        System.out.println("⏩ Decenas ya completadas: " + completadas + " | Pendientes: " + decenasPendientes.size() +
+                           " -> " + plan.size() + " rangos (" + calientes + " se partirán por superar " +
+                           RAWGRangePlanner.LIMITE_RESULTADOS_RAWG + " resultados)");
+
+        POOL_CLAVES.procesar(plan, (rango, clave) -> {
+            System.out.println("📅 [" + clave.abreviada() + "] Procesando rango: " + rango + "...");
+            int guardadosEnRango = descargarRango(rango, juegosProcesados, progresoDecenal, clave);
+            
+            if (guardadosEnRango == -1) {
+                // Sin marcar como completado: la próxima ejecución lo retoma desde su última página
+                System.out.println("🛑 Rango " + rango.id + " interrumpido por error.");
+                return;
+            }
+            
+            int sesion = totalGuardadosSesion.addAndGet(guardadosEnRango);
+            int enBD = totalEnBDAhora.addAndGet(guardadosEnRango);
+            
+            marcarProgresoDecenal(rango.id, 9999);
+            for (String decenaId : rango.decenas) {
+                if (!decenaId.equals(rango.id)) marcarProgresoDecenal(decenaId, 9999);
+            }
+            double porcentaje = totalApi > 0 ? ((double) enBD / totalApi) * 100.0 : 0;
+            System.out.printf("✅ Rango %s completado: +%d. (Sesión: +%d | Total BD: %d / %d | %.2f%%)%n", 
+                              rango.id, guardadosEnRango, sesion, enBD, totalApi, porcentaje);
+        });
+    }
+
+    // Descarga un rango partiéndolo por la mitad mientras supere el límite de paginación de RAWG.
+    // Devuelve los juegos guardados o -1 si hubo un error (el rango no se marca como completado).
+    private static int descargarRango(RAWGRangePlanner.Rango rango, IntLongHashMap juegosProcesados,
+                                      Map<String, Integer> progreso, ApiKeyPool.Clave clave)
+            throws ApiKeyPool.ClaveInvalidaException, InterruptedException {
+        if (progreso.getOrDefault(rango.id, 0) == 9999) return 0; // Trozo ya completado en una ejecución anterior
+
+        if (rango.total < 0) {
+            int count = obtenerCount(rango.fechas(), clave);
+            if (count < 0) return -1;
+            rango.total = count;
+            registrarPlan(rango);
+        }
+        if (rango.total == 0) return 0;
+
+        if (rango.excedeLimite()) {
+            if (rango.dias() > 1) {
+                int guardados = 0;
+                for (RAWGRangePlanner.Rango mitad : rango.partir()) {
+                    int guardadosMitad = descargarRango(mitad, juegosProcesados, progreso, clave);
+                    if (guardadosMitad == -1) return -1;
+                    marcarProgresoDecenal(mitad.id, 9999);
+                    guardados += guardadosMitad;
                 }
+                return guardados;
             }
+            System.err.println("⚠️ El día " + rango.inicio + " tiene " + rango.total + " juegos: RAWG solo pagina los primeros " +
+                               RAWGRangePlanner.LIMITE_RESULTADOS_RAWG + ".");
         }
+        return descargarPeriodoEspecifico(rango.id, rango.fechas(), juegosProcesados, progreso.getOrDefault(rango.id, 0), clave);
     }
 
-    private static int descargarPeriodoEspecifico(int anio, int mes, int decena, Map<Integer, String> juegosProcesados, Map<String, Integer> progreso) {
-        String decenaId = String.format("%04d-%02d-%d", anio, mes, decena);
-        int page = progreso.getOrDefault(decenaId, 0) + 1;
+    private static int descargarPeriodoEspecifico(String rangoId, String fechas, IntLongHashMap juegosProcesados,
+                                                  int ultimaPagina, ApiKeyPool.Clave clave)
+            throws ApiKeyPool.ClaveInvalidaException, InterruptedException {
+        int page = ultimaPagina + 1;
         boolean hayMasDatos = true;
         int guardadosEnPeriodo = 0;
-        
-        YearMonth yearMonth = YearMonth.of(anio, mes);
-        String fechaInicio, fechaFin;
-
-        if (decena == 1) {
-            fechaInicio = yearMonth.atDay(1).toString();
-            fechaFin = yearMonth.atDay(10).toString();
-        } else if (decena == 2) {
-            fechaInicio = yearMonth.atDay(11).toString();
-            fechaFin = yearMonth.atDay(20).toString();
-        } else {
-            fechaInicio = yearMonth.atDay(21).toString();
-            fechaFin = yearMonth.atEndOfMonth().toString();
-        }
-        String fechas = fechaInicio + "," + fechaFin;
 
         while (hayMasDatos) {
             try {
-                String urlString = "https://api.rawg.io/api/games?key=" + getApiKey() + 
-                                   "&dates=" + fechas + 
+                String urlString = RAWG_API_URL + "/games?dates=" + fechas + 
                                    "&ordering=-added" + 
                                    "&page_size=40&page=" + page;
 
-                String jsonResponse = peticionHttpConReintentoInfinito(urlString);
+                int[] guardadosPagina = {0};
+                RAWGPageDecoder.Pagina pagina = peticionHttpConReintentoInfinito(urlString, clave, (gameId, updated, json) -> {
+                    if (procesarJuegoIndividual(gameId, updated, json, juegosProcesados)) guardadosPagina[0]++;
+                });
                 
-                if (jsonResponse == null) return guardadosEnPeriodo;
+                if (pagina == null) return guardadosEnPeriodo;
+                guardadosEnPeriodo += guardadosPagina[0];
+                if (pagina.juegos == 0) return guardadosEnPeriodo;
 
-                String resultsArray = extraerArrayResults(jsonResponse);
-                if (resultsArray == null || resultsArray.isEmpty() || resultsArray.equals("[]")) return guardadosEnPeriodo;
+                // Mismo escritor que los juegos: la página se marca después de sus juegos
+                marcarProgresoDecenal(rangoId, page);
 
-                List<String> juegosJson = separarObjetosJson(resultsArray);
-                
-                for (String juegoJson : juegosJson) {
-                    if (procesarJuegoIndividual(juegoJson, juegosProcesados)) {
-                        guardadosEnPeriodo++;
-                    }
-                }
-
-                System.out.printf("\r   -> %s | Pág %d | Guardados (Periodo): %d", decenaId, page, guardadosEnPeriodo);
-                
-                marcarProgresoDecenal(decenaId, page);
-
-                if (!jsonResponse.contains("\"next\":\"http")) hayMasDatos = false;
+                hayMasDatos = pagina.hayMas;
                 page++;
-                Thread.sleep(1000); 
 
+            } catch (ApiKeyPool.ClaveInvalidaException | InterruptedException e) {
+                throw e;
             } catch (Exception e) {
-                System.err.println("❌ Error en " + decenaId + ": " + e.getMessage());
+                System.err.println("❌ Error en " + rangoId + ": " + e.getMessage());
                 return -1; 
             }
         }
-        System.out.println(); 
         return guardadosEnPeriodo; 
     }
     
     // --- LÓGICA COMÚN DE PROCESAMIENTO ---
-    private static boolean procesarJuegoIndividual(String juegoJson, Map<Integer, String> juegosProcesados) {
-        int gameId = extraerIdDelJuego(juegoJson);
-        String fechaUpdateNueva = extraerFechaUpdate(juegoJson);
-        
-        if (gameId != -1) {
-            boolean esNuevo = !juegosProcesados.containsKey(gameId);
-            boolean esActualizacion = false;
-
-            if (!esNuevo) {
-                String fechaUpdateGuardada = juegosProcesados.get(gameId);
-                if (fechaUpdateNueva != null && !fechaUpdateNueva.equals(fechaUpdateGuardada)) {
-                    esActualizacion = true;
+    // Thread-safe: varias claves comparten juegosProcesados. La decisión se toma con el mapa bloqueado
+    // y la escritura se encola fuera del bloqueo.
+    // gameId, fechaUpdateNueva y juegoJson (bytes UTF-8) llegan ya separados por RAWGPageDecoder
+    private static boolean procesarJuegoIndividual(int gameId, String fechaUpdateNueva, byte[] juegoJson,
+                                                   IntLongHashMap juegosProcesados) throws InterruptedException {
+        if (gameId > 0) {
+            String fechaUpdate = fechaUpdateOPorDefecto(fechaUpdateNueva);
+            synchronized (juegosProcesados) {
+                boolean esNuevo = !juegosProcesados.containsKey(gameId);
+                boolean esActualizacion = false;
+
+                if (!esNuevo) {
+                    long epochGuardado = juegosProcesados.get(gameId, SIN_FECHA);
+                    if (fechaUpdateNueva != null && epochFechaUpdate(fechaUpdateNueva) != epochGuardado) {
+                        esActualizacion = true;
+                    }
                 }
-            }
 
-            if (esNuevo || esActualizacion) {
-                guardarJuego(gameId, juegoJson);
-                juegosProcesados.put(gameId, fechaUpdateNueva);
-                return true;
+                if (!esNuevo && !esActualizacion) return false;
+                juegosProcesados.put(gameId, epochFechaUpdate(fechaUpdate));
             }
+            guardarJuego(gameId, juegoJson, fechaUpdate);
+            return true;
         }
         return false;
     }
 
     // --- MÉTODOS AUXILIARES ---
     
-    private static int extraerCount(String json) {
-        Pattern p = Pattern.compile("\"count\":(\\d+)");
-        Matcher m = p.matcher(json);
-        if (m.find()) return Integer.parseInt(m.group(1));
-        return 0;
-    }
-    
-    private static int obtenerCountDePeriodo(int anio, int mes, int decena) {
-        YearMonth yearMonth = YearMonth.of(anio, mes);
-        String fechaInicio, fechaFin;
-
-        if (decena == 1) {
-            fechaInicio = yearMonth.atDay(1).toString();
-            fechaFin = yearMonth.atDay(10).toString();
-        } else if (decena == 2) {
-            fechaInicio = yearMonth.atDay(11).toString();
-            fechaFin = yearMonth.atDay(20).toString();
-        } else {
-            fechaInicio = yearMonth.atDay(21).toString();
-            fechaFin = yearMonth.atEndOfMonth().toString();
-        }
-        String fechas = fechaInicio + "," + fechaFin;
-        String urlString = "https://api.rawg.io/api/games?key=" + getApiKey() + "&dates=" + fechas + "&page_size=1";
+    // "count" de RAWG para un parámetro dates ("inicio,fin"). Devuelve -1 si no se pudo obtener (no se cachea).
+    private static int obtenerCount(String fechas, ApiKeyPool.Clave clave)
+            throws ApiKeyPool.ClaveInvalidaException, InterruptedException {
+        String urlString = RAWG_API_URL + "/games?dates=" + fechas + "&page_size=1";
         
         try {
-            String jsonResponse = peticionHttpConReintentoInfinito(urlString);
-            if (jsonResponse != null) {
-                return extraerCount(jsonResponse);
+            RAWGPageDecoder.Pagina pagina = peticionHttpConReintentoInfinito(urlString, clave, null);
+            if (pagina != null && pagina.count >= 0) {
+                return (int) pagina.count;
             }
+        } catch (ApiKeyPool.ClaveInvalidaException | InterruptedException e) {
+            throw e;
         } catch (Exception e) {}
-        return 0;
-    }
-    
-    private static String extraerArrayResults(String fullJson) {
-        int startIndex = fullJson.indexOf("\"results\":[");
-        if (startIndex == -1) return null;
-        startIndex += "\"results\":".length();
-        int balance = 0;
-        for (int i = startIndex; i < fullJson.length(); i++) {
-            char c = fullJson.charAt(i);
-            if (c == '[') balance++;
-            if (c == ']') {
-                balance--;
-                if (balance == 0) return fullJson.substring(startIndex, i + 1);
-            }
-        }
-        return null;
-    }
-
-    private static List<String> separarObjetosJson(String jsonArray) {
-        List<String> lista = new ArrayList<>();
-        if (jsonArray == null || !jsonArray.startsWith("[")) return lista;
-        String content = jsonArray.trim().substring(1, jsonArray.length() - 1);
-        int balance = 0;
-        StringBuilder buffer = new StringBuilder();
-        for (int i = 0; i < content.length(); i++) {
-            char c = content.charAt(i);
-            if (c == '{') balance++;
-            if (c == '}') balance--;
-            buffer.append(c);
-            if (balance == 0 && c == '}') {
-                lista.add(buffer.toString());
-                buffer.setLength(0);
-            } else if (balance == 0 && c == ',') {
-                if (buffer.length() > 0 && buffer.charAt(0) == ',') buffer.setLength(0); 
-            }
-        }
-        return lista;
-    }
-
-    private static int extraerIdDelJuego(String json) {
-        Pattern pContext = Pattern.compile("\"updated\":\"[^\"]+\",\"id\":(\\d+)");
-        Matcher mContext = pContext.matcher(json);
-        if (mContext.find()) return Integer.parseInt(mContext.group(1));
-        
-        Pattern p = Pattern.compile("\"id\":(\\d+)");
-        Matcher m = p.matcher(json);
-        if (m.find()) return Integer.parseInt(m.group(1));
-        
         return -1;
     }
     
+    // Solo para la migración de filas antiguas (rellenarFechasUpdate); las páginas nuevas las decodifica RAWGPageDecoder
     private static String extraerFechaUpdate(String json) {
-        Pattern p = Pattern.compile("\"updated\":\"([^\"]+)\"");
-        Matcher m = p.matcher(json);
+        Matcher m = PATTERN_UPDATED.matcher(json);
         if (m.find()) return m.group(1);
         return null;
     }
@@ -339,6 +550,26 @@ public class RAWGRawCollector {
             stmt.execute("CREATE TABLE IF NOT EXISTS rawg_progress_decenal (" +
                          "decena_id TEXT PRIMARY KEY, " + // Formato "YYYY-MM-1", "YYYY-MM-2", "YYYY-MM-3"
                          "ultima_pagina INTEGER NOT NULL)");
+            // Marca de agua del mantenimiento incremental (último "updated" procesado)
+            stmt.execute("CREATE TABLE IF NOT EXISTS rawg_sync_state (" +
+                         "clave TEXT PRIMARY KEY, " +
+                         "valor INTEGER NOT NULL)");
+            // Plan de rangos adaptativo: las filas también pueden ser ventanas o trozos "inicio,fin"
+            SqliteSchema.asegurarColumna(conn, "rawg_progress_decenal", "fecha_inicio", "TEXT");
+            SqliteSchema.asegurarColumna(conn, "rawg_progress_decenal", "fecha_fin", "TEXT");
+            SqliteSchema.asegurarColumna(conn, "rawg_progress_decenal", "total_api", "INTEGER");
+            // Caché del "count" de cada decena (calcularTotalApi)
+            stmt.execute("CREATE TABLE IF NOT EXISTS rawg_count_cache (" +
+                         "decena_id TEXT PRIMARY KEY, " +
+                         "total INTEGER NOT NULL, " +
+                         "fecha_conteo INTEGER NOT NULL)");
+
+            // Fecha "updated" de RAWG como columna indexada: el arranque ya no escanea los JSON
+            SqliteSchema.asegurarColumna(conn, "rawg_raw_data", "rawg_updated", "TEXT");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rawg_raw_updated ON rawg_raw_data(rawg_updated)");
+            rellenarFechasUpdate(conn);
+            // Flags de estado (is_pc_only) que usa RAWGDetailCollector para priorizar
+            RAWGStatusFlags.asegurarEsquema(conn);
         } catch (Exception e) {
             System.err.println("❌ Error fatal DB: " + e.getMessage());
             System.exit(1);
@@ -357,112 +588,166 @@ public class RAWGRawCollector {
         return progreso;
     }
 
-    private static void marcarProgresoDecenal(String decenaId, int pagina) {
-        String sql = "INSERT OR REPLACE INTO rawg_progress_decenal(decena_id, ultima_pagina) VALUES(?,?)";
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, decenaId);
-            pstmt.setInt(2, pagina);
-            pstmt.executeUpdate();
-        } catch (Exception e) {
-            System.err.println("⚠️ Error guardando progreso de la decena " + decenaId + ": " + e.getMessage());
+    // Upsert: no se pisan las columnas del plan (fecha_inicio, fecha_fin, total_api)
+    private static void marcarProgresoDecenal(String decenaId, int pagina) throws InterruptedException {
+        escritor.encolar("INSERT INTO rawg_progress_decenal(decena_id, ultima_pagina) VALUES(?,?) " +
+                         "ON CONFLICT(decena_id) DO UPDATE SET ultima_pagina = excluded.ultima_pagina", decenaId, pagina);
+    }
+
+    // Deja constancia del plan: qué rango se descarga y cuántos juegos tenía según RAWG
+    private static void registrarPlan(RAWGRangePlanner.Rango rango) throws InterruptedException {
+        escritor.encolar("INSERT INTO rawg_progress_decenal(decena_id, ultima_pagina, fecha_inicio, fecha_fin, total_api) VALUES(?,0,?,?,?) " +
+                         "ON CONFLICT(decena_id) DO UPDATE SET fecha_inicio = excluded.fecha_inicio, " +
+                         "fecha_fin = excluded.fecha_fin, total_api = excluded.total_api",
+                rango.id, rango.inicio.toString(), rango.fin.toString(), rango.total < 0 ? null : rango.total);
+    }
+
+    // Migración: calcula rawg_updated para las filas guardadas antes de existir la columna.
+    // Por bloques de IDs para no modificar la tabla mientras se recorre con el mismo cursor.
+    private static void rellenarFechasUpdate(Connection conn) throws Exception {
+        String sqlBloque = "SELECT game_id, json_data FROM rawg_raw_data WHERE rawg_updated IS NULL AND game_id > ? ORDER BY game_id LIMIT 1000";
+        String sqlUpdate = "UPDATE rawg_raw_data SET rawg_updated = ? WHERE game_id = ?";
+        int rellenados = 0;
+        int ultimoId = -1;
+
+        try (PreparedStatement psBloque = conn.prepareStatement(sqlBloque);
+             PreparedStatement psUpdate = conn.prepareStatement(sqlUpdate)) {
+            while (true) {
+                List<Integer> ids = new ArrayList<>();
+                List<String> fechas = new ArrayList<>();
+                psBloque.setInt(1, ultimoId);
+                try (ResultSet rs = psBloque.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("game_id"));
+                        fechas.add(fechaUpdateOPorDefecto(extraerFechaUpdate(JsonStorage.leer(rs, "json_data"))));
+                    }
+                }
+                if (ids.isEmpty()) break;
+
+                conn.setAutoCommit(false);
+                for (int i = 0; i < ids.size(); i++) {
+                    psUpdate.setString(1, fechas.get(i));
+                    psUpdate.setInt(2, ids.get(i));
+                    psUpdate.addBatch();
+                }
+                psUpdate.executeBatch();
+                conn.commit();
+                conn.setAutoCommit(true);
+
+                rellenados += ids.size();
+                ultimoId = ids.get(ids.size() - 1);
+                System.out.print("\r🛠️ Migración: rawg_updated calculado para " + rellenados + " juegos...");
+            }
         }
+        if (rellenados > 0) System.out.println();
     }
 
-    private static Map<Integer, String> cargarJuegosYaProcesados() {
-        Map<Integer, String> juegos = new HashMap<>();
+    private static String fechaUpdateOPorDefecto(String fechaUpdate) {
+        return fechaUpdate != null ? fechaUpdate : "1970-01-01T00:00:00";
+    }
+
+    // game_id -> "updated" en epoch (segundos). ~800k entradas en arrays primitivos en lugar de Integer/String.
+    private static IntLongHashMap cargarJuegosYaProcesados() {
+        IntLongHashMap juegos = new IntLongHashMap(1 << 20);
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
              Statement stmt = conn.createStatement()) {
             ResultSet rsIgnored = stmt.executeQuery("SELECT game_id FROM rawg_ignored_ids");
-            while (rsIgnored.next()) juegos.put(rsIgnored.getInt("game_id"), "IGNORED");
+            while (rsIgnored.next()) juegos.put(rsIgnored.getInt("game_id"), SIN_FECHA);
             
-            ResultSet rsGames = stmt.executeQuery("SELECT game_id, json_data FROM rawg_raw_data");
+            // Recorrido del índice (rawg_updated + rowid): no se leen los JSON
+            ResultSet rsGames = stmt.executeQuery("SELECT game_id, rawg_updated FROM rawg_raw_data INDEXED BY idx_rawg_raw_updated");
             while (rsGames.next()) {
-                int id = rsGames.getInt("game_id");
-                String json = rsGames.getString("json_data");
-                String fechaUpdate = extraerFechaUpdate(json);
-                if (fechaUpdate == null) fechaUpdate = "1970-01-01T00:00:00";
-                juegos.put(id, fechaUpdate);
+                juegos.put(rsGames.getInt("game_id"), epochFechaUpdate(fechaUpdateOPorDefecto(rsGames.getString("rawg_updated"))));
             }
         } catch (Exception e) {}
         return juegos;
     }
 
-    private static void guardarJuego(int gameId, String json) {
-        String sql = "INSERT OR REPLACE INTO rawg_raw_data(game_id, json_data) VALUES(?,?)";
-        int intentos = 0;
-        while (intentos < 3) {
-            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, gameId);
-                pstmt.setString(2, json);
-                pstmt.executeUpdate();
-                return;
-            } catch (Exception e) {
-                if (e.getMessage().contains("locked")) {
-                    intentos++;
-                    try { Thread.sleep(100); } catch (InterruptedException ie) {}
-                } else {
-                    System.err.println("⚠️ Error guardando juego " + gameId + ": " + e.getMessage());
-                    return;
-                }
-            }
+    // "2019-09-22T14:25:17" -> epoch en segundos (UTC). Se parsea a mano porque se llama ~800k veces al arrancar.
+    // SIN_FECHA si el formato no es el esperado.
+    private static long epochFechaUpdate(String fecha) {
+        if (fecha == null || fecha.length() < 19 || fecha.charAt(4) != '-' || fecha.charAt(7) != '-' ||
+            fecha.charAt(10) != 'T' || fecha.charAt(13) != ':' || fecha.charAt(16) != ':') return SIN_FECHA;
+        try {
+            int anio = digitos(fecha, 0, 4), mes = digitos(fecha, 5, 7), dia = digitos(fecha, 8, 10);
+            int hora = digitos(fecha, 11, 13), minuto = digitos(fecha, 14, 16), segundo = digitos(fecha, 17, 19);
+            return LocalDate.of(anio, mes, dia).toEpochDay() * 86400L + hora * 3600L + minuto * 60L + segundo;
+        } catch (RuntimeException e) {
+            return SIN_FECHA;
         }
     }
+
+    private static int digitos(String s, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new NumberFormatException(s);
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    // is_pc_only se calcula al escribir (y se copia al detalle si ya existe) para que el collector de detalles no lea los JSON
+    private static void guardarJuego(int gameId, byte[] json, String fechaUpdate) throws InterruptedException {
+        int soloPC = RAWGStatusFlags.esSoloPC(new String(json, StandardCharsets.UTF_8)) ? 1 : 0;
+        escritor.encolar("INSERT OR REPLACE INTO rawg_raw_data(game_id, json_data, rawg_updated, is_pc_only) VALUES(?,?,?,?)",
+                gameId, JsonStorage.codificarUtf8(json), fechaUpdate, soloPC);
+        escritor.encolar(RAWGStatusFlags.SQL_SINCRONIZAR_SOLO_PC, soloPC, gameId, soloPC);
+    }
     
-    private static String peticionHttpConReintentoInfinito(String urlString) {
+    // La clave se añade aquí y cada intento consume presupuesto de esa clave.
+    // Un 401 retira la clave del pool (el ítem pasa a otra); los errores HTTP, de red y de JSON se reintentan sin fin.
+    // La respuesta se decodifica en streaming y cada juego va al consumidor (null: solo count/next).
+    // Lo que lance el consumidor (p. ej. el escritor caído) no se reintenta: sube al llamador.
+    // Devuelve null si es un 404.
+    private static RAWGPageDecoder.Pagina peticionHttpConReintentoInfinito(String urlSinClave, ApiKeyPool.Clave clave,
+                                                                        RAWGPageDecoder.Consumidor consumidor)
+            throws Exception {
+        String urlString = urlSinClave + (urlSinClave.contains("?") ? "&" : "?") + "key=" + clave.getValor();
         int intentos = 0;
         
         while (true) { 
+            clave.adquirir();
             try {
-                return peticionHttp(urlString);
-            } catch (Exception e) {
-                if (e.getMessage().contains("401")) {
-                    System.err.println("⚠️ Error 401 (Unauthorized). Rotando API Key...");
-                    rotateApiKey();
-                    // Reconstruimos la URL con la nueva clave
-                    urlString = urlString.replaceAll("key=[^&]+", "key=" + getApiKey());
-                    continue; // Reintentamos inmediatamente con la nueva clave
+                return peticionHttp(urlString, consumidor);
+            } catch (InterruptedException e) {
+                throw e; // Viene del consumidor (cola del escritor)
+            } catch (HttpPool.ErrorHttpException e) {
+                // Se decide por el código de estado, nunca por el texto del mensaje
+                int codigo = e.getCodigo();
+                if (codigo == 401) {
+                    throw new ApiKeyPool.ClaveInvalidaException("Error 401 (Unauthorized)");
                 }
-                if (e.getMessage().contains("404")) {
+                if (codigo == 404) {
                     return null; 
                 }
 
                 intentos++;
-                System.err.println("⚠️ Error HTTP (Intento " + intentos + "): " + e.getMessage());
+                System.err.println("⚠️ Error HTTP [" + clave.abreviada() + "] (Intento " + intentos + "): " + e.getMessage());
                 
-                if (e.getMessage().contains("502") || e.getMessage().contains("500") || e.getMessage().contains("504") || e.getMessage().contains("429")) {
-                    System.out.println("⏳ Servidor saturado o Rate Limit. Esperando 60s y reintentando...");
-                    try { Thread.sleep(60000); } catch (InterruptedException ie) {}
+                if (codigo == 429 || codigo >= 500) {
+                    System.out.println("⏳ Servidor saturado o Rate Limit. Pausando esta clave 60s y reintentando...");
+                    clave.pausar(60000);
                 } else {
-                    System.out.println("⏳ Error de conexión. Esperando 10s...");
-                    try { Thread.sleep(10000); } catch (InterruptedException ie) {}
+                    System.out.println("⏳ Error HTTP inesperado. Esperando 10s...");
+                    Thread.sleep(10000);
                 }
+            } catch (IOException e) {
+                // Conexión, timeout o JSON cortado a mitad (JsonProcessingException es una IOException): siempre se reintenta
+                intentos++;
+                System.err.println("⚠️ Error de conexión/lectura [" + clave.abreviada() + "] (Intento " + intentos + "): " + e.getMessage());
+                System.out.println("⏳ Error de conexión. Esperando 10s...");
+                Thread.sleep(10000);
             }
         }
     }
 
-    private static String peticionHttp(String urlString) throws Exception {
-        HttpURLConnection conn = null;
-        try {
-            conn = (HttpURLConnection) new URL(urlString).openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "SteamDataScraper/1.0");
-            conn.setConnectTimeout(15000);
-            conn.setReadTimeout(15000);
-            int code = conn.getResponseCode();
-            if (code == 200) {
-                try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream(), "utf-8"))) {
-                    StringBuilder content = new StringBuilder();
-                    String line;
-                    while ((line = in.readLine()) != null) content.append(line);
-                    return content.toString();
-                }
-            } else {
-                throw new Exception("HTTP Code " + code);
+    private static RAWGPageDecoder.Pagina peticionHttp(String urlString, RAWGPageDecoder.Consumidor consumidor) throws Exception {
+        try (HttpPool.Respuesta respuesta = HttpPool.get(urlString, TIMEOUT_PETICION)) {
+            if (respuesta.getCodigo() != 200) {
+                throw new HttpPool.ErrorHttpException(respuesta.getCodigo());
             }
-        } finally {
-            if (conn != null) conn.disconnect();
+            return RAWGPageDecoder.leer(respuesta.getCuerpo(), consumidor);
         }
     }
-}
\ No newline at end of file
+}
@@ -48,9 +48,9 @@ public class RAWGScraper {
                     boolean primero = true;
 
                     while (rs.next()) {
-                        String jsonBasic = rs.getString("json_basic");
-                        String jsonDetail = rs.getString("json_detail"); // Puede ser null
-                        String jsonStores = rs.getString("json_stores"); // Puede ser null
+                        String jsonBasic = JsonStorage.leer(rs, "json_basic");
+                        String jsonDetail = JsonStorage.leer(rs, "json_detail"); // Puede ser null
+                        String jsonStores = JsonStorage.leer(rs, "json_stores"); // Puede ser null
                         
                         String jsonProcesado = procesarJuego(jsonBasic, jsonDetail, jsonStores);
                         
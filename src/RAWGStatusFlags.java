@@ -0,0 +1,199 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Estado de cada juego de RAWG en columnas indexadas, calculado al escribir el JSON.
+// Los JSON pueden estar comprimidos (JsonStorage), así que buscar trabajo con LIKE obligaba a leer y descomprimir
+// todas las filas en Java. Con estas columnas la consulta de pendientes y el dashboard son recorridos de índice:
+// - rawg_raw_data.is_pc_only: parent_platforms es solo PC (los juegos de consola/multi van primero).
+// - rawg_details_data.is_404, stores_empty, desc_empty e is_pc_only (copia para contar sin cruzar con rawg_raw_data).
+// - rawg_details_data.next_retry_at: epoch (s) a partir del cual se vuelve a descargar; NULL si no hay nada que reintentar.
+public class RAWGStatusFlags {
+
+    // Detalles o stores vacíos se reintentan pasado este periodo de enfriamiento
+    public static final int DIAS_COOLDOWN_VACIOS = 3;
+
+    public static final String JSON_404 = "{\"error\":\"404_not_found\"}";
+    public static final String STORES_VACIOS = "{\"results\":[]}";
+
+    // Tras reescribir un juego en rawg_raw_data, la copia de is_pc_only del detalle no se queda atrás
+    public static final String SQL_SINCRONIZAR_SOLO_PC =
+            "UPDATE rawg_details_data SET is_pc_only = ? WHERE game_id = ? AND is_pc_only IS NOT ?";
+
+    private static final Pattern PATTERN_PLATFORMS = Pattern.compile("\"parent_platforms\":\\s*\\[(.*?)\\]");
+    private static final int FILAS_POR_BLOQUE = 1000;
+
+    private RAWGStatusFlags() {}
+
+    // --- CÁLCULO DE FLAGS ---
+
+    public static boolean esSoloPC(String jsonBasic) {
+        if (jsonBasic == null) return false; // Ante la duda, priorizar (no es solo PC)
+
+        Matcher m = PATTERN_PLATFORMS.matcher(jsonBasic);
+        if (m.find()) {
+            String platformsContent = m.group(1);
+
+            int count = 0;
+            int idx = 0;
+            while ((idx = platformsContent.indexOf("\"slug\":", idx)) != -1) {
+                count++;
+                idx += 7;
+            }
+
+            // Es Solo PC si: Tiene 1 plataforma Y esa es PC
+            return (count == 1 && platformsContent.contains("\"slug\":\"pc\""));
+        }
+        return false; // Si no tiene plataformas definidas, lo tratamos como prioritario por si acaso
+    }
+
+    public static boolean esError404(String jsonFull) {
+        return jsonFull != null && jsonFull.contains("\"error\":\"404_not_found\"");
+    }
+
+    public static boolean storesVacios(String jsonStores) {
+        return jsonStores != null && (jsonStores.contains("\"results\":[]") || jsonStores.equals("[]"));
+    }
+
+    public static boolean descripcionVacia(String jsonFull) {
+        return jsonFull != null && (jsonFull.contains("\"description\":\"\"") || jsonFull.contains("\"description_raw\":\"\""));
+    }
+
+    // Un 404 no se reintenta nunca; algo vacío, pasado el cooldown desde la última descarga
+    public static Long siguienteReintento(boolean es404, boolean storesVacios, boolean descVacia, long ultimaDescarga) {
+        if (es404 || (!storesVacios && !descVacia)) return null;
+        return ultimaDescarga + DIAS_COOLDOWN_VACIOS * 86400L;
+    }
+
+    public static long ahoraEpoch() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // --- ESQUEMA Y MIGRACIÓN ---
+
+    // Lo llaman los dos collectors de RAWG: cualquiera de ellos puede ser el primero en abrir una base antigua
+    public static void asegurarEsquema(Connection conn) throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS rawg_raw_data (" +
+                         "game_id INTEGER PRIMARY KEY, " +
+                         "json_data TEXT NOT NULL, " +
+                         "fecha_sync TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS rawg_details_data (" +
+                         "game_id INTEGER PRIMARY KEY, " +
+                         "json_full TEXT NOT NULL, " +
+                         "fecha_sync TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "json_stores", "TEXT");
+
+            SqliteSchema.asegurarColumna(conn, "rawg_raw_data", "is_pc_only", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "is_404", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "stores_empty", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "desc_empty", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "is_pc_only", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "rawg_details_data", "next_retry_at", "INTEGER");
+
+            // Juegos sin detalle: anti-join por rowid y orden de prioridad sacado del índice
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rawg_raw_pc_only ON rawg_raw_data(is_pc_only)");
+            // Reintentos vencidos: índice parcial (solo las filas con algo pendiente) que cubre la consulta
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rawg_details_retry ON rawg_details_data(next_retry_at, desc_empty, is_pc_only) " +
+                         "WHERE next_retry_at IS NOT NULL");
+            // Dashboard: recuento por is_pc_only sin tocar las filas
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rawg_details_pc_only ON rawg_details_data(is_pc_only)");
+        }
+        rellenarSoloPC(conn);
+        rellenarEstadoDetalles(conn);
+    }
+
+    // Migración: is_pc_only de las filas guardadas antes de existir la columna (por bloques de IDs, como rawg_updated)
+    private static void rellenarSoloPC(Connection conn) throws Exception {
+        String sqlBloque = "SELECT game_id, json_data FROM rawg_raw_data WHERE is_pc_only IS NULL AND game_id > ? ORDER BY game_id LIMIT " + FILAS_POR_BLOQUE;
+        String sqlUpdate = "UPDATE rawg_raw_data SET is_pc_only = ? WHERE game_id = ?";
+        int rellenados = 0;
+        int ultimoId = -1;
+
+        try (PreparedStatement psBloque = conn.prepareStatement(sqlBloque);
+             PreparedStatement psUpdate = conn.prepareStatement(sqlUpdate)) {
+            while (true) {
+                List<Integer> ids = new ArrayList<>();
+                List<Boolean> soloPC = new ArrayList<>();
+                psBloque.setInt(1, ultimoId);
+                try (ResultSet rs = psBloque.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("game_id"));
+                        soloPC.add(esSoloPC(JsonStorage.leer(rs, "json_data")));
+                    }
+                }
+                if (ids.isEmpty()) break;
+
+                conn.setAutoCommit(false);
+                for (int i = 0; i < ids.size(); i++) {
+                    psUpdate.setInt(1, soloPC.get(i) ? 1 : 0);
+                    psUpdate.setInt(2, ids.get(i));
+                    psUpdate.addBatch();
+                }
+                psUpdate.executeBatch();
+                conn.commit();
+                conn.setAutoCommit(true);
+
+                rellenados += ids.size();
+                ultimoId = ids.get(ids.size() - 1);
+                System.out.print("\r🛠️ Migración: is_pc_only calculado para " + rellenados + " juegos...");
+            }
+        }
+        if (rellenados > 0) System.out.println();
+    }
+
+    // Migración: flags de estado de los detalles guardados antes de existir las columnas.
+    // Se evalúa el mismo criterio que antes aplicaba la consulta de pendientes (contenido del JSON + fecha_sync).
+    private static void rellenarEstadoDetalles(Connection conn) throws Exception {
+        String sqlBloque = "SELECT d.game_id, d.json_full, d.json_stores, " +
+                           "CAST(strftime('%s', d.fecha_sync) AS INTEGER) AS sync_epoch, r.is_pc_only " +
+                           "FROM rawg_details_data d LEFT JOIN rawg_raw_data r ON d.game_id = r.game_id " +
+                           "WHERE d.is_404 IS NULL AND d.game_id > ? ORDER BY d.game_id LIMIT " + FILAS_POR_BLOQUE;
+        String sqlUpdate = "UPDATE rawg_details_data SET is_404 = ?, stores_empty = ?, desc_empty = ?, is_pc_only = ?, next_retry_at = ? " +
+                           "WHERE game_id = ?";
+        int rellenados = 0;
+        int ultimoId = -1;
+
+        try (PreparedStatement psBloque = conn.prepareStatement(sqlBloque);
+             PreparedStatement psUpdate = conn.prepareStatement(sqlUpdate)) {
+            while (true) {
+                List<Object[]> filas = new ArrayList<>();
+                psBloque.setInt(1, ultimoId);
+                try (ResultSet rs = psBloque.executeQuery()) {
+                    while (rs.next()) {
+                        String jsonFull = JsonStorage.leer(rs, "json_full");
+                        String jsonStores = JsonStorage.leer(rs, "json_stores");
+                        boolean es404 = esError404(jsonFull);
+                        boolean vacioStores = jsonStores == null || storesVacios(jsonStores);
+                        boolean vacioDesc = descripcionVacia(jsonFull);
+                        // Sin stores guardados: pendiente ya, como hacía la consulta con "json_stores IS NULL"
+                        Long reintento = (jsonStores == null && !es404) ? Long.valueOf(0)
+                                : siguienteReintento(es404, vacioStores, vacioDesc, rs.getLong("sync_epoch"));
+                        filas.add(new Object[] {es404 ? 1 : 0, vacioStores ? 1 : 0, vacioDesc ? 1 : 0,
+                                                rs.getInt("is_pc_only"), reintento, rs.getInt("game_id")});
+                    }
+                }
+                if (filas.isEmpty()) break;
+
+                conn.setAutoCommit(false);
+                for (Object[] fila : filas) {
+                    for (int i = 0; i < fila.length; i++) psUpdate.setObject(i + 1, fila[i]);
+                    psUpdate.addBatch();
+                }
+                psUpdate.executeBatch();
+                conn.commit();
+                conn.setAutoCommit(true);
+
+                rellenados += filas.size();
+                ultimoId = (Integer) filas.get(filas.size() - 1)[5];
+                System.out.print("\r🛠️ Migración: estado calculado para " + rellenados + " detalles...");
+            }
+        }
+        if (rellenados > 0) System.out.println();
+    }
+}
@@ -48,9 +48,9 @@ public class RAWGUpcomingScraper {
                     boolean primero = true;
 
                     while (rs.next()) {
-                        String jsonBasic = rs.getString("json_basic");
-                        String jsonDetail = rs.getString("json_detail");
-                        String jsonStores = rs.getString("json_stores");
+                        String jsonBasic = JsonStorage.leer(rs, "json_basic");
+                        String jsonDetail = JsonStorage.leer(rs, "json_detail");
+                        String jsonStores = JsonStorage.leer(rs, "json_stores");
                         
                         String jsonProcesado = procesarJuego(jsonBasic, jsonDetail, jsonStores);
                         
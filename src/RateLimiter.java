@@ -0,0 +1,76 @@
+// Limitador de tasa tipo "token bucket" compartido entre hilos.
+// Cada petición consume un token. Los tokens se reponen a ritmo constante
+// (peticiones por segundo) hasta un máximo que define la ráfaga permitida.
+public class RateLimiter {
+
+    private final double capacidad;
+    private double tasaPorSegundo;
+    private double tokens;
+    private long ultimaRecarga;
+    private long pausaHasta; // System.nanoTime() hasta el que no se entregan tokens
+
+    public RateLimiter(double tasaPorSegundo, double capacidad) {
+        if (tasaPorSegundo <= 0 || capacidad < 1) {
+            throw new IllegalArgumentException("Tasa y capacidad deben ser positivas");
+        }
+        this.tasaPorSegundo = tasaPorSegundo;
+        this.capacidad = capacidad;
+        this.tokens = 1; // Arrancamos con un único token para no disparar una ráfaga al inicio
+        this.ultimaRecarga = System.nanoTime();
+        this.pausaHasta = this.ultimaRecarga;
+    }
+
+    // Bloquea el hilo hasta que haya un token disponible y lo consume.
+    public void adquirir() throws InterruptedException {
+        while (true) {
+            long esperaMs;
+            synchronized (this) {
+                long ahora = System.nanoTime();
+                if (ahora < pausaHasta) {
+                    esperaMs = (long) Math.ceil((pausaHasta - ahora) / 1_000_000.0);
+                } else {
+                    recargar();
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        return;
+                    }
+                    esperaMs = (long) Math.ceil(((1 - tokens) / tasaPorSegundo) * 1000);
+                }
+            }
+            Thread.sleep(Math.max(esperaMs, 1));
+        }
+    }
+
+    public synchronized double getTasa() {
+        return tasaPorSegundo;
+    }
+
+    public synchronized void setTasa(double nuevaTasa) {
+        if (nuevaTasa <= 0) return;
+        recargar(); // Los tokens acumulados hasta ahora se calculan con la tasa anterior
+        this.tasaPorSegundo = nuevaTasa;
+    }
+
+    // Detiene la entrega de tokens durante 'ms' milisegundos y vacía el cubo,
+    // para que al reanudar no salga una ráfaga que vuelva a provocar el bloqueo.
+    public synchronized void pausar(long ms) {
+        long hasta = System.nanoTime() + ms * 1_000_000L;
+        if (hasta > pausaHasta) {
+            pausaHasta = hasta;
+        }
+        tokens = 0;
+        ultimaRecarga = pausaHasta;
+    }
+
+    public synchronized boolean estaPausado() {
+        return System.nanoTime() < pausaHasta;
+    }
+
+    private void recargar() {
+        long ahora = System.nanoTime();
+        if (ahora <= ultimaRecarga) return;
+        double segundos = (ahora - ultimaRecarga) / 1_000_000_000.0;
+        tokens = Math.min(capacidad, tokens + segundos * tasaPorSegundo);
+        ultimaRecarga = ahora;
+    }
+}
@@ -0,0 +1,245 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Escritor dedicado para SQLite.
+// Un único hilo con una conexión de larga duración vacía una cola de sentencias (upserts, deletes...)
+// y las confirma en transacciones de N filas o cada T milisegundos, lo que ocurra antes.
+// Las PreparedStatement se reutilizan por texto SQL, así que el coste por fila es solo el bind + step.
+public class SqliteBatchWriter implements AutoCloseable {
+
+    private static class Operacion {
+        final String sql;
+        final Object[] params;
+        // Solo en las marcas de vaciar(): se abre cuando todo lo anterior está confirmado
+        final CountDownLatch confirmado;
+
+        Operacion(String sql, Object[] params) {
+            this(sql, params, null);
+        }
+
+        Operacion(String sql, Object[] params, CountDownLatch confirmado) {
+            this.sql = sql;
+            this.params = params;
+            this.confirmado = confirmado;
+        }
+    }
+
+    private static final Operacion FIN = new Operacion(null, null);
+
+    private final String dbFile;
+    private final int filasPorTransaccion;
+    private final long msPorTransaccion;
+    private final BlockingQueue<Operacion> cola;
+    private final Thread hilo;
+    private final Map<String, PreparedStatement> sentencias = new HashMap<>();
+
+    private final AtomicLong filasEscritas = new AtomicLong();
+    private final AtomicLong filasFallidas = new AtomicLong();
+    private volatile boolean cerrado = false;
+    // Error que terminó el hilo escritor; a partir de ahí encolar falla en vez de bloquear para siempre
+    private volatile Exception fallo = null;
+
+    public SqliteBatchWriter(String dbFile, int filasPorTransaccion, long msPorTransaccion, int capacidadCola) {
+        this.dbFile = dbFile;
+        this.filasPorTransaccion = filasPorTransaccion;
+        this.msPorTransaccion = msPorTransaccion;
+        // Cola acotada: si el disco va más lento que la red, los productores esperan en vez de llenar la memoria
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.hilo = new Thread(this::bucleEscritura, "sqlite-writer-" + dbFile);
+        this.hilo.start();
+    }
+
+    // Encola una sentencia. Bloquea si la cola está llena, salvo que el hilo escritor haya muerto.
+    public void encolar(String sql, Object... params) throws InterruptedException {
+        meter(new Operacion(sql, params));
+    }
+
+    // Confirma todo lo encolado hasta ahora y espera a que termine.
+    // Después, getFilasFallidas() ya refleja esas filas (para no avanzar marcas de sincronización si algo falló).
+    public void vaciar() throws InterruptedException {
+        CountDownLatch confirmado = new CountDownLatch(1);
+        meter(new Operacion(null, null, confirmado));
+        while (!confirmado.await(200, TimeUnit.MILLISECONDS)) {
+            comprobarVivo();
+        }
+    }
+
+    private void meter(Operacion op) throws InterruptedException {
+        if (cerrado) throw new IllegalStateException("El escritor de " + dbFile + " ya está cerrado");
+        while (!cola.offer(op, 200, TimeUnit.MILLISECONDS)) {
+            comprobarVivo();
+        }
+        comprobarVivo();
+    }
+
+    private void comprobarVivo() {
+        if (fallo != null) {
+            throw new IllegalStateException("El escritor de " + dbFile + " falló: " + fallo.getMessage(), fallo);
+        }
+        if (!hilo.isAlive()) {
+            throw new IllegalStateException("El escritor de " + dbFile + " ya no está activo");
+        }
+    }
+
+    public long getFilasEscritas() {
+        return filasEscritas.get();
+    }
+
+    public long getFilasFallidas() {
+        return filasFallidas.get();
+    }
+
+    // Confirma lo pendiente y libera la conexión. Espera a que la cola se vacíe.
+    // Si el hilo escritor ya murió no espera: lo que quede en la cola se cuenta como fallido.
+    // Si interrumpen a quien cierra, el escritor se interrumpe también: lo no confirmado cuenta como fallido
+    // y se restaura el flag de interrupción al volver.
+    @Override
+    public void close() {
+        if (cerrado) return;
+        cerrado = true;
+        boolean interrumpido = false;
+        try {
+            while (hilo.isAlive()) {
+                if (cola.offer(FIN, 200, TimeUnit.MILLISECONDS)) break;
+            }
+            hilo.join();
+        } catch (InterruptedException e) {
+            interrumpido = true;
+            hilo.interrupt();
+            while (hilo.isAlive()) {
+                try {
+                    hilo.join();
+                } catch (InterruptedException ie) {
+                    // Ya se pidió parar: solo falta esperar a que el escritor suelte la conexión
+                }
+            }
+        }
+        descartarCola();
+        if (interrumpido) Thread.currentThread().interrupt();
+    }
+
+    // Operaciones que ya no se escribirán (hilo escritor muerto)
+    private void descartarCola() {
+        Operacion op;
+        while ((op = cola.poll()) != null) {
+            if (op != FIN && op.confirmado == null) filasFallidas.incrementAndGet();
+        }
+    }
+
+    private void bucleEscritura() {
+        int pendientes = 0;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout=5000;");
+            }
+            conn.setAutoCommit(false);
+
+            long inicioTransaccion = 0;
+
+            while (true) {
+                Operacion op;
+                if (pendientes == 0) {
+                    op = cola.take();
+                } else {
+                    long restante = msPorTransaccion - (System.currentTimeMillis() - inicioTransaccion);
+                    op = restante > 0 ? cola.poll(restante, TimeUnit.MILLISECONDS) : null;
+                }
+
+                if (op == null) {
+                    // Venció el plazo T: confirmamos lo acumulado
+                    confirmar(conn, pendientes);
+                    pendientes = 0;
+                    continue;
+                }
+                if (op == FIN) {
+                    confirmar(conn, pendientes);
+                    break;
+                }
+                if (op.confirmado != null) {
+                    confirmar(conn, pendientes);
+                    pendientes = 0;
+                    op.confirmado.countDown();
+                    continue;
+                }
+
+                if (ejecutar(conn, op)) {
+                    if (pendientes == 0) inicioTransaccion = System.currentTimeMillis();
+                    pendientes++;
+                }
+                if (pendientes >= filasPorTransaccion) {
+                    confirmar(conn, pendientes);
+                    pendientes = 0;
+                }
+            }
+
+            for (PreparedStatement ps : sentencias.values()) {
+                try { ps.close(); } catch (Exception e) {}
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fallo = e;
+            filasFallidas.addAndGet(pendientes);
+            System.err.println("⚠️ Escritor de " + dbFile + " interrumpido. Lo no confirmado se descarta.");
+            descartarCola();
+        } catch (Exception e) {
+            fallo = e;
+            filasFallidas.addAndGet(pendientes);
+            System.err.println("❌ Error fatal en el escritor de " + dbFile + ": " + e.getMessage());
+            descartarCola();
+        }
+    }
+
+    private boolean ejecutar(Connection conn, Operacion op) {
+        try {
+            PreparedStatement ps = sentencias.get(op.sql);
+            if (ps == null) {
+                ps = conn.prepareStatement(op.sql);
+                sentencias.put(op.sql, ps);
+            }
+            for (int i = 0; i < op.params.length; i++) {
+                ps.setObject(i + 1, op.params[i]);
+            }
+            ps.executeUpdate();
+            return true;
+        } catch (Exception e) {
+            filasFallidas.incrementAndGet();
+            System.err.println("⚠️ Error en escritura SQLite (" + resumenSql(op.sql) + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void confirmar(Connection conn, int pendientes) {
+        if (pendientes == 0) return;
+        int intentos = 0;
+        while (true) {
+            try {
+                conn.commit();
+                filasEscritas.addAndGet(pendientes);
+                return;
+            } catch (Exception e) {
+                String msg = String.valueOf(e.getMessage());
+                if ((msg.contains("locked") || msg.contains("busy")) && ++intentos < 3) {
+                    try { Thread.sleep(100); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
+                    continue;
+                }
+                System.err.println("❌ Fallo al confirmar " + pendientes + " filas en " + dbFile + ": " + msg);
+                filasFallidas.addAndGet(pendientes);
+                try { conn.rollback(); } catch (Exception ex) {}
+                return;
+            }
+        }
+    }
+
+    private static String resumenSql(String sql) {
+        return sql.length() > 60 ? sql.substring(0, 60) + "..." : sql;
+    }
+}
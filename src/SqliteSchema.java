@@ -0,0 +1,31 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Utilidades de migración de esquema compartidas por los collectors.
+// SQLite no tiene "ADD COLUMN IF NOT EXISTS", así que consultamos PRAGMA table_info.
+public class SqliteSchema {
+
+    private SqliteSchema() {}
+
+    public static boolean existeColumna(Connection conn, String tabla, String columna) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabla + ");")) {
+            while (rs.next()) {
+                if (columna.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+        }
+        return false;
+    }
+
+    // Añade la columna si no existe. Devuelve true si se acaba de crear (para lanzar el relleno inicial).
+    public static boolean asegurarColumna(Connection conn, String tabla, String columna, String definicion) throws SQLException {
+        if (existeColumna(conn, tabla, columna)) return false;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + tabla + " ADD COLUMN " + columna + " " + definicion + ";");
+        }
+        System.out.println("🛠️ Migración: columna " + tabla + "." + columna + " añadida.");
+        return true;
+    }
+}
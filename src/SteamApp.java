@@ -0,0 +1,294 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Campos de una respuesta de appdetails de Steam que usan los exportadores, ya decodificados.
+// El documento ({"<appid>":{"success":true,"data":{...}}}) se recorre una sola vez con el JsonParser de Jackson:
+// cada campo se lee en su posición exacta dentro de "data" (un "name" de "movies" o de "fullgame" ya no se confunde
+// con el del juego) y lo que no interesa (detailed_description, about_the_game...) se salta sin construir Strings.
+// Los textos quedan desescapados: para volver a escribirlos en JSON hay que pasar por SteamExtractor.limpiarTexto.
+public class SteamApp {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public static class Video {
+        final String nombre;
+        final String thumbnail;
+        final String url;
+
+        Video(String nombre, String thumbnail, String url) {
+            this.nombre = nombre;
+            this.thumbnail = thumbnail;
+            this.url = url;
+        }
+    }
+
+    String tipo;
+    String nombre;
+    boolean comingSoon = false;
+    String fecha;                 // release_date.date tal cual ("Mar 5, 2024", "Coming soon", "")
+    String descripcionCorta;
+    String headerImage;
+    boolean isFree = false;
+    int edadMaxima = 0;           // Máximo de todos los required_age (del juego y de cada sistema de rating)
+    int metacritic = 0;
+    String idiomas;               // supported_languages (HTML)
+    final Map<String, String> ratings = new HashMap<>();   // "pegi" -> "16", "esrb" -> "m"
+    final List<String> generos = new ArrayList<>();
+    final List<String> capturas = new ArrayList<>();        // path_full de las 3 primeras
+    final List<Video> videos = new ArrayList<>();
+    final List<String> desarrolladores = new ArrayList<>();
+    final List<String> editores = new ArrayList<>();
+    final List<String> requisitos = new ArrayList<>();      // minimum/recommended de pc, mac y linux, en orden
+
+    private SteamApp() {}
+
+    // null si no hay "data" (success:false o JSON vacío)
+    public static SteamApp leer(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            return buscarData(parser, 0);
+        }
+    }
+
+    // Nivel 0: {"<appid>": {...}}; nivel 1: {"success":true,"data":{...}}
+    private static SteamApp buscarData(JsonParser parser, int nivel) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (campo.equals("data")) {
+                    SteamApp app = new SteamApp();
+                    app.leerData(parser);
+                    return app;
+                }
+                if (nivel == 0) {
+                    SteamApp app = buscarData(parser, 1);
+                    if (app != null) return app;
+                    continue;
+                }
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private void leerData(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            JsonToken valor = parser.nextToken();
+            switch (campo) {
+                case "type": tipo = texto(parser); break;
+                case "name": nombre = texto(parser); break;
+                case "short_description": descripcionCorta = texto(parser); break;
+                case "header_image": headerImage = texto(parser); break;
+                case "supported_languages": idiomas = texto(parser); break;
+                case "is_free": isFree = valor == JsonToken.VALUE_TRUE; break;
+                case "required_age": anotarEdad(parser); break;
+                case "release_date": leerFecha(parser); break;
+                case "metacritic": leerMetacritic(parser); break;
+                case "genres": leerArray(parser, "description", generos); break;
+                case "developers": leerArray(parser, null, desarrolladores); break;
+                case "publishers": leerArray(parser, null, editores); break;
+                case "screenshots": leerCapturas(parser); break;
+                case "movies": leerVideos(parser); break;
+                case "ratings": leerRatings(parser); break;
+                case "pc_requirements":
+                case "mac_requirements":
+                case "linux_requirements":
+                    leerRequisitos(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private void leerFecha(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            JsonToken valor = parser.nextToken();
+            if (campo.equals("coming_soon")) comingSoon = valor == JsonToken.VALUE_TRUE;
+            else if (campo.equals("date")) fecha = texto(parser);
+            else parser.skipChildren();
+        }
+    }
+
+    private void leerMetacritic(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            parser.nextToken();
+            if (campo.equals("score")) metacritic = Math.max(0, parser.getValueAsInt(0));
+            else parser.skipChildren();
+        }
+    }
+
+    // Array de strings (campo null) o de objetos de los que se toma un campo de texto ("genres" -> "description")
+    private static void leerArray(JsonParser parser, String campoObjeto, List<String> destino) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (campoObjeto != null && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.getCurrentName();
+                    parser.nextToken();
+                    if (campo.equals(campoObjeto)) anadirNoVacio(destino, texto(parser));
+                    else parser.skipChildren();
+                }
+            } else if (campoObjeto == null) {
+                anadirNoVacio(destino, texto(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void leerCapturas(JsonParser parser) throws IOException {
+        List<String> todas = new ArrayList<>();
+        leerArray(parser, "path_full", todas);
+        capturas.addAll(todas.subList(0, Math.min(3, todas.size())));
+    }
+
+    // URL preferida: mp4 max > mp4 480 > webm max > hls_h264 > dash_h264
+    private void leerVideos(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String nombreVideo = null, thumbnail = null, hls = null, dash = null;
+            String[] mp4 = null, webm = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                parser.nextToken();
+                switch (campo) {
+                    case "name": nombreVideo = texto(parser); break;
+                    case "thumbnail": thumbnail = texto(parser); break;
+                    case "hls_h264": hls = texto(parser); break;
+                    case "dash_h264": dash = texto(parser); break;
+                    case "mp4": mp4 = leerCalidades(parser); break;
+                    case "webm": webm = leerCalidades(parser); break;
+                    default: parser.skipChildren();
+                }
+            }
+            String url = mp4 != null && mp4[0] != null ? mp4[0]
+                       : mp4 != null && mp4[1] != null ? mp4[1]
+                       : webm != null && webm[0] != null ? webm[0]
+                       : hls != null ? hls : dash;
+            if (url != null && nombreVideo != null) videos.add(new Video(nombreVideo, thumbnail, url));
+        }
+    }
+
+    // {"480": "...", "max": "..."} -> {max, 480}
+    private static String[] leerCalidades(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String[] calidades = new String[2];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            parser.nextToken();
+            if (campo.equals("max")) calidades[0] = noVacio(texto(parser));
+            else if (campo.equals("480")) calidades[1] = noVacio(texto(parser));
+            else parser.skipChildren();
+        }
+        return calidades;
+    }
+
+    // {"esrb": {"rating": "m", "descriptors": "..."}, "pegi": {"rating": "16", "required_age": "16"}, ...}
+    private void leerRatings(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String sistema = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                parser.nextToken();
+                if (campo.equals("rating")) {
+                    String rating = texto(parser);
+                    if (rating != null) ratings.putIfAbsent(sistema, rating);
+                } else if (campo.equals("required_age")) {
+                    anotarEdad(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void leerRequisitos(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren(); // Sin requisitos Steam manda []
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            anadirNoVacio(requisitos, texto(parser));
+        }
+    }
+
+    // Número o string con dígitos al principio ("18", 18, "16+")
+    private void anotarEdad(JsonParser parser) throws IOException {
+        int edad = -1;
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            edad = parser.getValueAsInt(-1);
+        } else {
+            String texto = texto(parser);
+            if (texto != null) {
+                long valor = 0;
+                int i = 0;
+                while (i < texto.length() && texto.charAt(i) >= '0' && texto.charAt(i) <= '9' && valor <= Integer.MAX_VALUE) {
+                    valor = valor * 10 + (texto.charAt(i) - '0');
+                    i++;
+                }
+                if (i > 0 && valor <= Integer.MAX_VALUE) edad = (int) valor;
+            }
+        }
+        if (edad > edadMaxima) edadMaxima = edad;
+    }
+
+    // Valor escalar como texto; objetos y arrays se saltan (null)
+    private static String texto(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString(null);
+    }
+
+    private static String noVacio(String texto) {
+        return texto != null && !texto.isEmpty() ? texto : null;
+    }
+
+    private static void anadirNoVacio(List<String> destino, String texto) {
+        if (texto != null && !texto.isEmpty()) destino.add(texto);
+    }
+}
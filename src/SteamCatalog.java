@@ -0,0 +1,151 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// Catálogo de Steam (IStoreService/GetAppList) en arrays primitivos.
+// Las páginas se leen en streaming con el JsonParser de Jackson directamente del InputStream de la respuesta:
+// no se construye el String de la página ni un Integer por cada app.
+// Además del appid se guarda last_modified y price_change_number para las sincronizaciones incrementales.
+public class SteamCatalog {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Resultado de leer una página: lo que hace falta para pedir la siguiente
+    public static class Pagina {
+        int apps = 0;
+        boolean hayMas = false;
+        boolean hayMasInformado = false; // La API no siempre incluye "have_more_results"
+        int lastAppId = 0;
+    }
+
+    private int[] appIds = new int[1024];
+    private long[] lastModified = new long[1024];
+    private int[] priceChangeNumber = new int[1024];
+    private int size = 0;
+    private boolean completo = false; // Se recorrieron todas las páginas sin errores
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    public void setCompleto(boolean completo) {
+        this.completo = completo;
+    }
+
+    public int getAppId(int i) {
+        return appIds[i];
+    }
+
+    public long getLastModified(int i) {
+        return lastModified[i];
+    }
+
+    public int getPriceChangeNumber(int i) {
+        return priceChangeNumber[i];
+    }
+
+    public void add(int appId, long modificado, int cambioPrecio) {
+        if (size == appIds.length) {
+            int nuevaCapacidad = appIds.length * 2;
+            appIds = Arrays.copyOf(appIds, nuevaCapacidad);
+            lastModified = Arrays.copyOf(lastModified, nuevaCapacidad);
+            priceChangeNumber = Arrays.copyOf(priceChangeNumber, nuevaCapacidad);
+        }
+        appIds[size] = appId;
+        lastModified[size] = modificado;
+        priceChangeNumber[size] = cambioPrecio;
+        size++;
+    }
+
+    // Búsqueda binaria: GetAppList devuelve las apps ordenadas por appid (y steam_catalog se carga con ORDER BY app_id).
+    // Devuelve el índice o -1 si no está.
+    public int buscar(int appId) {
+        int i = Arrays.binarySearch(appIds, 0, size, appId);
+        return i >= 0 ? i : -1;
+    }
+
+    // Lee una página de GetAppList y añade sus apps a este catálogo.
+    // {"response":{"apps":[{"appid":10,"name":"...","last_modified":...,"price_change_number":...}],
+    //              "have_more_results":true,"last_appid":12345}}
+    public Pagina leerPagina(InputStream in) throws IOException {
+        Pagina pagina = new Pagina();
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return pagina;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                JsonToken valor = parser.nextToken();
+                if ("response".equals(campo) && valor == JsonToken.START_OBJECT) {
+                    leerResponse(parser, pagina);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (pagina.lastAppId == 0 && pagina.apps > 0) {
+            pagina.lastAppId = appIds[size - 1];
+        }
+        return pagina;
+    }
+
+    private void leerResponse(JsonParser parser, Pagina pagina) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.getCurrentName();
+            JsonToken valor = parser.nextToken();
+            switch (campo) {
+                case "apps":
+                    if (valor == JsonToken.START_ARRAY) {
+                        pagina.apps += leerApps(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "have_more_results":
+                    pagina.hayMas = valor == JsonToken.VALUE_TRUE;
+                    pagina.hayMasInformado = true;
+                    break;
+                case "last_appid":
+                    pagina.lastAppId = parser.getValueAsInt();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private int leerApps(JsonParser parser) throws IOException {
+        int leidas = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int appId = -1;
+            long modificado = 0;
+            int cambioPrecio = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                parser.nextToken();
+                switch (campo) {
+                    case "appid": appId = parser.getValueAsInt(-1); break;
+                    case "last_modified": modificado = parser.getValueAsLong(0); break;
+                    case "price_change_number": cambioPrecio = parser.getValueAsInt(0); break;
+                    default: parser.skipChildren(); // "name" y demás: el parser los salta sin crear Strings
+                }
+            }
+            if (appId > 0) {
+                add(appId, modificado, cambioPrecio);
+                leidas++;
+            }
+        }
+        return leidas;
+    }
+}
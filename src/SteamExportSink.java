@@ -0,0 +1,93 @@
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Uno de los ficheros que produce SteamExporter (steam_games.json.gz, steam_proximos_games.json.gz).
+// Las reglas propias de cada fichero (qué juegos entran, cómo se renombran los duplicados) las pone su Reglas;
+// lo común vive aquí: el índice de slugs para detectar duplicados y el SteamExportSpill donde esperan los registros
+// hasta que termina la lectura y ya se sabe cuáles colisionan.
+public class SteamExportSink implements Closeable {
+
+    public interface Reglas {
+        // Se llama desde los hilos del pool: sin estado compartido.
+        // null si el juego no entra en este fichero; con resto null su slug cuenta para los duplicados pero no se exporta.
+        SteamExportSpill.Registro procesarJuego(int appId, SteamApp app);
+
+        // Objeto JSON final, con slug y título renombrados si el slug está repetido en este mismo fichero
+        String registroAJson(SteamExportSpill.Registro registro, boolean esConflictivo);
+    }
+
+    private final String nombre;
+    private final String fichero;
+    private final Reglas reglas;
+    private final SteamExportSpill spill = new SteamExportSpill();
+    private final Map<String, Integer> juegosPorSlug = new HashMap<>();
+    private int recibidos = 0;
+
+    public SteamExportSink(String nombre, String fichero, Reglas reglas) throws IOException {
+        this.nombre = nombre;
+        this.fichero = fichero;
+        this.reglas = reglas;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    // Juegos enrutados a este fichero (incluidos los descartados por sus reglas)
+    public int getRecibidos() {
+        return recibidos;
+    }
+
+    public int getExportables() {
+        return spill.size();
+    }
+
+    SteamExportSpill.Registro procesar(int appId, SteamApp app) {
+        return reglas.procesarJuego(appId, app);
+    }
+
+    // Solo desde el consumidor ordenado de SteamExporter
+    void aceptar(SteamExportSpill.Registro registro) throws IOException {
+        recibidos++;
+        if (registro == null) return;
+        // Cuenta para los duplicados aunque no se exporte
+        juegosPorSlug.merge(registro.slug, 1, Integer::sum);
+        if (registro.resto != null) spill.escribir(registro);
+    }
+
+    // Vuelca el fichero temporal al .json.gz; solo se modifican slug y título de los conflictivos
+    public int exportar() throws IOException {
+        int conflictivos = 0;
+        for (int juegos : juegosPorSlug.values()) {
+            if (juegos > 1) conflictivos += juegos;
+        }
+        System.out.println("⚠️ [" + nombre + "] Se detectaron " + conflictivos + " juegos con nombres/slugs duplicados que serán renombrados.");
+
+        int[] exportados = {0};
+        try (Writer w = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(fichero)), "UTF-8")) {
+            w.write("[\n");
+            spill.recorrer(registro -> {
+                if (exportados[0] > 0) {
+                    w.write(",\n");
+                }
+                w.write(reglas.registroAJson(registro, juegosPorSlug.get(registro.slug) > 1));
+                exportados[0]++;
+            });
+            w.write("\n]");
+        }
+
+        System.out.println("✅ [" + nombre + "] " + exportados[0] + " juegos -> " + fichero);
+        return exportados[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        spill.close();
+    }
+}
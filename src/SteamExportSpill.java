@@ -0,0 +1,112 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Fichero temporal con los registros ya transformados por el exportador de Steam, en el orden de lectura.
+// Permite exportar con una sola pasada por steam_raw_data: mientras se lee se construye el índice de slugs y los
+// registros se van guardando aquí; al terminar ya se sabe qué slugs colisionan y se vuelca el fichero al .json.gz
+// renombrando solo los registros afectados. Slug y título van aparte del resto del JSON para poder cambiarlos sin reparsear.
+// Se comprime con Deflate al nivel más rápido: el coste es mínimo frente a leer y extraer de SQLite otra vez.
+public class SteamExportSpill implements Closeable {
+
+    public static class Registro {
+        final int appId;
+        final String slug;
+        final String titulo;   // Sin escapar
+        final String fecha;
+        final String resto;    // Líneas del JSON a partir de "tipo", hasta el cierre del objeto
+
+        Registro(int appId, String slug, String titulo, String fecha, String resto) {
+            this.appId = appId;
+            this.slug = slug;
+            this.titulo = titulo;
+            this.fecha = fecha;
+            this.resto = resto;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitante {
+        void visitar(Registro registro) throws IOException;
+    }
+
+    private final Path fichero;
+    private DataOutputStream salida;
+    private int registros = 0;
+
+    public SteamExportSpill() throws IOException {
+        fichero = Files.createTempFile("steam_export_", ".spill");
+        fichero.toFile().deleteOnExit();
+        salida = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(fichero), new Deflater(Deflater.BEST_SPEED), 65536), 65536));
+    }
+
+    public int size() {
+        return registros;
+    }
+
+    public void escribir(Registro registro) throws IOException {
+        salida.writeInt(registro.appId);
+        escribirTexto(registro.slug);
+        escribirTexto(registro.titulo);
+        escribirTexto(registro.fecha);
+        escribirTexto(registro.resto);
+        registros++;
+    }
+
+    // Cierra la escritura y recorre los registros en el mismo orden en que se escribieron
+    public void recorrer(Visitante visitante) throws IOException {
+        cerrarEscritura();
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(fichero)), 65536))) {
+            for (int i = 0; i < registros; i++) {
+                int appId = entrada.readInt();
+                visitante.visitar(new Registro(appId, leerTexto(entrada), leerTexto(entrada), leerTexto(entrada), leerTexto(entrada)));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Fichero temporal de exportación truncado: " + fichero, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        cerrarEscritura();
+        Files.deleteIfExists(fichero);
+    }
+
+    private void cerrarEscritura() throws IOException {
+        if (salida != null) {
+            salida.close();
+            salida = null;
+        }
+    }
+
+    // writeUTF está limitado a 64 KB; longitud + bytes UTF-8 (-1 para null)
+    private void escribirTexto(String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    private static String leerTexto(DataInputStream entrada) throws IOException {
+        int longitud = entrada.readInt();
+        if (longitud < 0) return null;
+        byte[] bytes = new byte[longitud];
+        entrada.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
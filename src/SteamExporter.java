@@ -0,0 +1,127 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+// Exportador único de Steam: una sola lectura de steam_raw_data produce los dos ficheros.
+// Cada juego se decodifica una vez (SteamApp) y esComingSoon decide su destino:
+// - SteamScraper -> steam_games.json.gz (lanzados)
+// - SteamUpcomingScraper -> steam_proximos_games.json.gz (próximos lanzamientos)
+// Cada destino detecta sus duplicados por separado y los renombra con sus propias reglas (SteamExportSink).
+// Antes cada exportador hacía dos lecturas completas de la tabla (duplicados + exportación): cuatro para los dos ficheros.
+public class SteamExporter {
+
+    private static final String DB_FILE = "steam_raw.sqlite";
+
+    // Fila tal cual sale del cursor: json_data sin decodificar (puede estar comprimido), se decodifica en el pool
+    private static class FilaCruda {
+        final int appId;
+        final Object jsonData;
+
+        FilaCruda(int appId, Object jsonData) {
+            this.appId = appId;
+            this.jsonData = jsonData;
+        }
+    }
+
+    // Resultado de la transformación: a qué fichero va y su registro (null si sus reglas lo descartan)
+    private static class Enrutado {
+        final SteamExportSink destino;
+        final SteamExportSpill.Registro registro;
+
+        Enrutado(SteamExportSink destino, SteamExportSpill.Registro registro) {
+            this.destino = destino;
+            this.registro = registro;
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.out.println("🚀 Iniciando Exportador Steam (SQLite -> JSON Universal: lanzados + próximos)...");
+
+            try {
+                Class.forName("org.sqlite.JDBC");
+            } catch (ClassNotFoundException e) {
+                System.err.println("❌ ERROR: No se encontró el driver JDBC de SQLite.");
+                return;
+            }
+
+            try (SteamExportSink lanzados = new SteamExportSink("Lanzados", SteamScraper.OUTPUT_FILE, new SteamScraper());
+                 SteamExportSink proximos = new SteamExportSink("Próximos", SteamUpcomingScraper.OUTPUT_FILE, new SteamUpcomingScraper())) {
+
+                // PASO 1: LECTURA, ENRUTADO Y TRANSFORMACIÓN
+                // El cursor solo lee filas; la decodificación y procesarJuego van en paralelo (un hilo por núcleo)
+                // y el consumidor recibe los registros en el orden de la tabla, así que la salida no depende de los hilos.
+                int procesados = 0;
+                try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+                     Statement stmt = conn.createStatement();
+                     OrderedParallelMapper<FilaCruda, Enrutado> transformador = new OrderedParallelMapper<>(
+                         fila -> enrutar(fila, lanzados, proximos),
+                         enrutado -> {
+                             if (enrutado == null) return;
+                             enrutado.destino.aceptar(enrutado.registro);
+                             int total = lanzados.getRecibidos() + proximos.getRecibidos();
+                             if (total % 1000 == 0) {
+                                 System.out.println("⚙️ Procesados: " + total + " | Exportables: " + lanzados.getExportables() +
+                                                    " lanzados, " + proximos.getExportables() + " próximos");
+                             }
+                         })) {
+
+                    stmt.setFetchSize(1000);
+                    ResultSet rs = stmt.executeQuery("SELECT app_id, json_data FROM steam_raw_data");
+
+                    while (rs.next()) {
+                        transformador.enviar(new FilaCruda(rs.getInt("app_id"), rs.getObject("json_data")));
+                        procesados++;
+                    }
+                    transformador.terminar();
+                }
+
+                // PASO 2: DUPLICADOS Y EXPORTACIÓN (cada fichero con sus reglas)
+                int exportadosLanzados = lanzados.exportar();
+                int exportadosProximos = proximos.exportar();
+
+                System.out.println("\n✅ Exportación finalizada.");
+                System.out.println("   -> Total leídos: " + procesados);
+                System.out.println("   -> Lanzados exportados: " + exportadosLanzados + " (" + SteamScraper.OUTPUT_FILE + ")");
+                System.out.println("   -> Próximos exportados: " + exportadosProximos + " (" + SteamUpcomingScraper.OUTPUT_FILE + ")");
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // null si el JSON no tiene "data" (no cuenta en ningún fichero)
+    private static Enrutado enrutar(FilaCruda fila, SteamExportSink lanzados, SteamExportSink proximos) {
+        SteamApp app;
+        try {
+            app = SteamApp.leer(JsonStorage.decodificar(fila.jsonData));
+        } catch (Exception e) {
+            return null;
+        }
+        if (app == null) return null;
+        SteamExportSink destino = esComingSoon(app) ? proximos : lanzados;
+        return new Enrutado(destino, destino.procesar(fila.appId, app));
+    }
+
+    // --- LÓGICA DE FILTRADO COMING SOON ---
+    static boolean esComingSoon(SteamApp app) {
+        // 1. Check explícito de flag
+        if (app.comingSoon) return true;
+
+        // 2. Check de fecha futura (por si acaso el flag falla pero la fecha es futura)
+        String fecha = SteamExtractor.fechaISO(app.fecha);
+        if (fecha != null) {
+            try {
+                LocalDate date = LocalDate.parse(fecha);
+                if (date.isAfter(LocalDate.now())) {
+                    return true;
+                }
+            } catch (Exception e) {}
+        }
+
+        return false;
+    }
+}
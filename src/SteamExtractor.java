@@ -0,0 +1,326 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Utilidades de exportación compartidas por SteamScraper y SteamUpcomingScraper.
+// Trabajan sobre los campos ya decodificados de SteamApp (un solo recorrido del JSON de appdetails):
+// aquí solo queda normalizar (slug, fecha, edad, idiomas, tamaño) y volver a escribir JSON.
+// - Los patrones son constantes (Pattern es inmutable y seguro entre hilos; cada llamada crea solo su Matcher).
+// - generarSlug y limpiarTexto son bucles a mano en lugar de cadenas de replaceAll/replace.
+// SteamExtractorBenchmark compara CPU y memoria asignada por registro frente a la extracción anterior con regex.
+public class SteamExtractor {
+
+    private static final Pattern PATTERN_TAMANO = Pattern.compile("(Storage|Hard Drive):.*?(\\d+\\.?\\d*)\\s*(GB|MB)");
+    private static final Pattern PATTERN_BR = Pattern.compile("<br\\s*/?>");
+    private static final Pattern PATTERN_CORCHETES = Pattern.compile("\\[.*?\\]");
+    private static final Pattern PATTERN_ETIQUETA = Pattern.compile("<[^>]*>");
+
+    private SteamExtractor() {}
+
+    // Equivale a: NFD, quitar diacríticos, minúsculas, quitar [^\p{L}\p{N}\s-], espacios -> '-', colapsar y recortar guiones.
+    // Los caracteres eliminados no cortan las secuencias de separadores ("a ! b" -> "a-b").
+    static String generarSlug(String titulo) {
+        if (titulo == null) return "unknown";
+        String normalized = Normalizer.normalize(titulo, Normalizer.Form.NFD);
+
+        // Marcas combinantes (bloque U+0300-U+036F, todo en el BMP)
+        StringBuilder sinMarcas = null;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') {
+                if (sinMarcas == null) sinMarcas = new StringBuilder(normalized.length()).append(normalized, 0, i);
+            } else if (sinMarcas != null) {
+                sinMarcas.append(c);
+            }
+        }
+        String lower = (sinMarcas != null ? sinMarcas.toString() : normalized).toLowerCase();
+
+        StringBuilder slug = new StringBuilder(lower.length());
+        boolean guionPendiente = false;
+        for (int i = 0; i < lower.length(); ) {
+            int cp = lower.codePointAt(i);
+            i += Character.charCount(cp);
+            if (esEspacioRegex(cp) || cp == '-') {
+                guionPendiente = true;
+            } else if (esLetraODigito(cp)) {
+                if (guionPendiente && slug.length() > 0) slug.append('-');
+                guionPendiente = false;
+                slug.appendCodePoint(cp);
+            }
+        }
+        if (slug.length() == 0) return "unknown";
+        return slug.toString();
+    }
+
+    // \s de java.util.regex sin UNICODE_CHARACTER_CLASS
+    private static boolean esEspacioRegex(int cp) {
+        return cp == ' ' || cp == '\t' || cp == '\n' || cp == 0x0B || cp == '\f' || cp == '\r';
+    }
+
+    // \p{L} o \p{N}
+    private static boolean esLetraODigito(int cp) {
+        if (cp < 0x80) return (cp >= 'a' && cp <= 'z') || (cp >= 'A' && cp <= 'Z') || (cp >= '0' && cp <= '9');
+        if (Character.isLetter(cp)) return true;
+        int tipo = Character.getType(cp);
+        return tipo == Character.DECIMAL_DIGIT_NUMBER || tipo == Character.LETTER_NUMBER || tipo == Character.OTHER_NUMBER;
+    }
+
+    // "Mar 5, 2024" / "5 Mar, 2024" -> "2024-03-05"; null si no hay fecha concreta
+    static String fechaISO(String rawDate) {
+        if (rawDate == null || rawDate.contains("TBA") || rawDate.trim().isEmpty()) return null;
+        try {
+            String[] parts = rawDate.replace(",", "").split(" ");
+            if (parts.length < 3) return null;
+            String mesStr = parts[0].substring(0, 3).toLowerCase();
+            String dia = parts[1];
+            String anio = parts[2];
+            if (dia.length() == 1) dia = "0" + dia;
+            String mes = switch (mesStr) {
+                case "jan" -> "01"; case "feb" -> "02"; case "mar" -> "03";
+                case "apr" -> "04"; case "may" -> "05"; case "jun" -> "06";
+                case "jul" -> "07"; case "aug" -> "08"; case "sep" -> "09";
+                case "oct" -> "10"; case "nov" -> "11"; case "dec" -> "12";
+                default -> "01";
+            };
+            return anio + "-" + mes + "-" + dia;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static String descripcionCorta(String desc) {
+        if (desc == null) return "";
+        desc = desc.replace("&quot;", "\"").replace("&amp;", "&").replace("&lt;", "<").replace("&gt;", ">");
+        if (desc.length() > 300) {
+            return desc.substring(0, 297) + "...";
+        }
+        return desc;
+    }
+
+    // Primer "Storage: 20 GB" / "Hard Drive: 500 MB" de los requisitos (pc, mac, linux)
+    static String tamano(SteamApp app) {
+        for (String requisitos : app.requisitos) {
+            Matcher m = PATTERN_TAMANO.matcher(requisitos);
+            if (m.find()) return m.group(2) + " " + m.group(3);
+        }
+        return "N/A";
+    }
+
+    static int edadRecomendada(SteamApp app) {
+        // ESTRATEGIA: Prioridad PEGI > ESRB > Máximo Global
+
+        // 1. PEGI explícito
+        int pegi = ratingANumero(app.ratings.get("pegi"), false);
+        if (pegi > 0) return pegi;
+
+        // 2. ESRB explícito, normalizado a PEGI
+        int esrb = ratingANumero(app.ratings.get("esrb"), true); // Devuelve 0, 10, 13, 17, 18
+        if (esrb > 0) {
+            if (esrb >= 17) return 16;
+            if (esrb >= 13) return 12;
+            if (esrb >= 10) return 7;
+            return esrb;
+        }
+
+        // 3. Fallback: Máximo global de required_age
+        int maxAge = app.edadMaxima;
+        if (maxAge <= 0) return 0;
+        if (maxAge <= 3) return 3;
+        if (maxAge <= 7) return 7;
+        if (maxAge <= 10) return 7;
+        if (maxAge <= 12) return 12;
+        if (maxAge <= 14) return 12;
+        if (maxAge <= 16) return 16;
+        if (maxAge <= 17) return 16;
+        return 18;
+    }
+
+    // PEGI suele ser numérico ("3", "7"...); ESRB usa códigos (e, e10, t, m, ao). Solo cuenta el prefijo alfanumérico.
+    private static int ratingANumero(String rating, boolean esEsrb) {
+        if (rating == null) return 0;
+        int fin = 0;
+        boolean soloDigitos = true;
+        while (fin < rating.length() && esAlfanumericoAscii(rating.charAt(fin))) {
+            if (rating.charAt(fin) > '9') soloDigitos = false;
+            fin++;
+        }
+        if (fin == 0) return 0;
+        String val = rating.substring(0, fin).toLowerCase();
+
+        if (soloDigitos) {
+            try {
+                return Integer.parseInt(val);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        if (esEsrb) {
+            if (val.equals("e")) return 0;
+            if (val.equals("e10")) return 10;
+            if (val.equals("t")) return 13;
+            if (val.equals("m")) return 17;
+            if (val.equals("ao")) return 18;
+        }
+        return 0;
+    }
+
+    private static boolean esAlfanumericoAscii(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    // supported_languages: "English<strong>*</strong>, French<br><strong>*</strong>languages with full audio support"
+    static Map<String, List<String>> procesarIdiomas(String rawLangs) {
+        Map<String, List<String>> result = new HashMap<>();
+        List<String> voces = new ArrayList<>();
+        List<String> textos = new ArrayList<>();
+        result.put("voces", voces);
+        result.put("textos", textos);
+
+        if (rawLangs == null || rawLangs.isEmpty()) return result;
+
+        String cleanLangs = rawLangs.replace("languages with full audio support", "");
+        cleanLangs = cleanLangs.replace("with full audio support", "");
+
+        cleanLangs = cleanLangs.replace("\r", ",");
+        cleanLangs = cleanLangs.replace("\n", ",");
+        if (cleanLangs.indexOf('<') != -1) cleanLangs = PATTERN_BR.matcher(cleanLangs).replaceAll(",");
+
+        String[] langParts = cleanLangs.split(",");
+
+        for (String part : langParts) {
+            boolean hasVoice = part.contains("*");
+
+            String langName = part.replace("*", "");
+            if (langName.indexOf('[') != -1) langName = PATTERN_CORCHETES.matcher(langName).replaceAll("");
+            if (langName.indexOf('<') != -1) langName = PATTERN_ETIQUETA.matcher(langName).replaceAll("");
+            langName = langName.trim();
+
+            if (!langName.isEmpty()) {
+                if (!textos.contains(langName)) {
+                    textos.add(langName);
+                }
+                if (hasVoice && !voces.contains(langName)) {
+                    voces.add(langName);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Escapa un texto para escribirlo entre comillas en JSON (incluidos los caracteres de control que ya vienen desescapados)
+    static String limpiarTexto(String t) {
+        if (t == null) return "";
+        StringBuilder sb = null;
+        for (int i = 0; i < t.length(); i++) {
+            char c = t.charAt(i);
+            String escape;
+            switch (c) {
+                case '\\': escape = "\\\\"; break;
+                case '"': escape = "\\\""; break;
+                case '\r': escape = "\\r"; break;
+                case '\n': escape = "\\n"; break;
+                case '\t': escape = "\\t"; break;
+                case '\b': escape = "\\b"; break;
+                case '\f': escape = "\\f"; break;
+                default: escape = c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            }
+            if (escape == null) {
+                if (sb != null) sb.append(c);
+            } else {
+                if (sb == null) sb = new StringBuilder(t.length() + 16).append(t, 0, i);
+                sb.append(escape);
+            }
+        }
+        return sb != null ? sb.toString() : t;
+    }
+
+    // Objeto JSON de un juego desde "tipo" hasta el cierre; slug y título van delante y los escribe cada fichero
+    // al exportar (registroAJson), cuando ya sabe si tiene que renombrarlos
+    static String restoJson(int appId, SteamApp app, String fecha) {
+        String descCorta = descripcionCorta(app.descripcionCorta);
+        String imgPrincipal = app.headerImage != null ? limpiarTexto(app.headerImage) : null;
+        String storage = tamano(app);
+
+        Map<String, List<String>> idiomas = procesarIdiomas(app.idiomas);
+
+        // Edad Recomendada (Prioridad PEGI)
+        int requiredAge = edadRecomendada(app);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("    \"tipo\": \"").append(app.tipo).append("\",\n");
+        sb.append("    \"descripcion_corta\": \"").append(limpiarTexto(descCorta)).append("\",\n");
+        sb.append("    \"fecha_lanzamiento\": \"").append(fecha).append("\",\n");
+        sb.append("    \"storage\": \"").append(storage).append("\",\n");
+
+        sb.append("    \"generos\": ").append(listaAJson(app.generos)).append(",\n");
+        sb.append("    \"plataformas\": [\"PC\"],\n");
+        sb.append("    \"img_principal\": \"").append(imgPrincipal).append("\",\n");
+        sb.append("    \"galeria\": ").append(listaAJson(app.capturas)).append(",\n");
+        sb.append("    \"videos\": ").append(videosAJson(app.videos)).append(",\n");
+
+        sb.append("    \"desarrolladores\": ").append(listaAJson(app.desarrolladores)).append(",\n");
+        sb.append("    \"editores\": ").append(listaAJson(app.editores)).append(",\n");
+
+        sb.append("    \"idiomas\": {\n");
+        sb.append("      \"voces\": ").append(listaAJson(idiomas.get("voces"))).append(",\n");
+        sb.append("      \"textos\": ").append(listaAJson(idiomas.get("textos"))).append("\n");
+        sb.append("    },\n");
+
+        sb.append("    \"metacritic\": ").append(app.metacritic).append(",\n");
+        sb.append("    \"edad_recomendada\": ").append(requiredAge).append(",\n");
+
+        sb.append("    \"tiendas\": [\n");
+        sb.append("      {\n");
+        sb.append("        \"tienda\": \"Steam\",\n");
+        sb.append("        \"id_externo\": \"").append(appId).append("\",\n");
+        sb.append("        \"url\": \"https://store.steampowered.com/app/").append(appId).append("\",\n");
+        sb.append("        \"is_free\": ").append(app.isFree).append("\n");
+        sb.append("      }\n");
+        sb.append("    ]\n");
+        sb.append("  }");
+        return sb.toString();
+    }
+
+    // Objeto completo: slug y título (ya renombrados si hacía falta) + restoJson
+    static String registroAJson(String slug, String titulo, String resto) {
+        StringBuilder sb = new StringBuilder(resto.length() + 128);
+        sb.append("  {\n");
+        sb.append("    \"slug\": \"").append(slug).append("\",\n");
+        sb.append("    \"titulo\": \"").append(limpiarTexto(titulo)).append("\",\n");
+        sb.append(resto);
+        return sb.toString();
+    }
+
+    static String listaAJson(List<String> lista) {
+        if (lista == null) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int k = 0; k < lista.size(); k++) {
+            sb.append("\"").append(limpiarTexto(lista.get(k))).append("\"");
+            if (k < lista.size() - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    static String videosAJson(List<SteamApp.Video> videos) {
+        if (videos == null || videos.isEmpty()) return "[]";
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < videos.size(); i++) {
+            SteamApp.Video video = videos.get(i);
+            sb.append("      {\n");
+            sb.append("        \"titulo\": \"").append(limpiarTexto(video.nombre)).append("\",\n");
+            if (video.thumbnail != null) {
+                sb.append("        \"thumbnail\": \"").append(limpiarTexto(video.thumbnail)).append("\",\n");
+            }
+            sb.append("        \"url\": \"").append(limpiarTexto(video.url)).append("\"\n");
+            sb.append("      }");
+            if (i < videos.size() - 1) sb.append(",\n");
+        }
+        sb.append("\n    ]");
+        return sb.toString();
+    }
+}
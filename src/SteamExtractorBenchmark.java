@@ -0,0 +1,422 @@
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Micro-benchmark de la extracción de campos de Steam: SteamApp (un recorrido con Jackson) + SteamExtractor
+// frente a la versión anterior (extraerValorJsonManual desde el principio del JSON por cada campo, regex compiladas en cada llamada).
+// Carga juegos reales de steam_raw.sqlite en memoria y, para cada versión, extrae de cada registro todo lo que usan los
+// exportadores. Mide CPU y bytes asignados del hilo con ThreadMXBean, tras unas rondas de calentamiento.
+// Los textos no se comparan (la versión anterior los dejaba con los escapes de JSON); sí slug, fecha, edad, metacritic y tamaño.
+// Uso: ./gradlew runSteamExtractorBenchmark [-PbenchRegistros=2000] [-PbenchRondas=5]
+public class SteamExtractorBenchmark {
+
+    private static final String DB_FILE = "steam_raw.sqlite";
+
+    @FunctionalInterface
+    private interface Extraccion {
+        Object aplicar(String json);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxRegistros = Integer.getInteger("bench.registros", 2000);
+        int rondas = Integer.getInteger("bench.rondas", 5);
+
+        List<String> jsons = cargar(maxRegistros);
+        if (jsons.isEmpty()) {
+            System.err.println("❌ No hay registros en " + DB_FILE);
+            return;
+        }
+        System.out.println("📦 Registros cargados: " + jsons.size() + " | Rondas medidas: " + rondas);
+
+        int diferencias = 0;
+        for (String json : jsons) {
+            if (!resumen(extraerActual(json)).equals(resumen(extraerAnterior(json)))) diferencias++;
+        }
+        System.out.println("🔎 Registros con slug/fecha/edad/metacritic/tamaño distintos: " + diferencias +
+                           " (títulos con escapes o campos anidados que la versión anterior leía mal)");
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] anterior = medir("Anterior", SteamExtractorBenchmark::extraerAnterior, jsons, rondas, mx);
+        long[] actual = medir("Actual", SteamExtractorBenchmark::extraerActual, jsons, rondas, mx);
+
+        System.out.println(String.format("🏁 CPU x%.2f más rápido | %.1f%% menos memoria asignada por registro",
+                (double) anterior[0] / Math.max(1, actual[0]), 100.0 * (anterior[1] - actual[1]) / Math.max(1, anterior[1])));
+    }
+
+    private static List<String> cargar(int maxRegistros) throws Exception {
+        List<String> jsons = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT json_data FROM steam_raw_data LIMIT " + maxRegistros)) {
+            while (rs.next()) {
+                String json = JsonStorage.leer(rs, "json_data");
+                if (json != null) jsons.add(json);
+            }
+        }
+        return jsons;
+    }
+
+    // Devuelve {ns de CPU por registro, bytes asignados por registro} de la mejor ronda
+    private static long[] medir(String nombre, Extraccion extraccion, List<String> jsons, int rondas,
+                                com.sun.management.ThreadMXBean mx) {
+        long hilo = Thread.currentThread().getId();
+        long sumidero = 0;
+        for (int i = 0; i < 3; i++) {
+            for (String json : jsons) sumidero += extraccion.aplicar(json).hashCode();
+        }
+
+        long mejorCpu = Long.MAX_VALUE;
+        long mejorBytes = Long.MAX_VALUE;
+        for (int i = 0; i < rondas; i++) {
+            long bytesInicio = mx.getThreadAllocatedBytes(hilo);
+            long cpuInicio = mx.getCurrentThreadCpuTime();
+            for (String json : jsons) sumidero += extraccion.aplicar(json).hashCode();
+            mejorCpu = Math.min(mejorCpu, (mx.getCurrentThreadCpuTime() - cpuInicio) / jsons.size());
+            mejorBytes = Math.min(mejorBytes, (mx.getThreadAllocatedBytes(hilo) - bytesInicio) / jsons.size());
+        }
+        System.out.println(String.format("⏱️ %-8s %,8d ns CPU/registro | %,8d bytes/registro (control %d)",
+                nombre, mejorCpu, mejorBytes, sumidero & 0xff));
+        return new long[]{mejorCpu, mejorBytes};
+    }
+
+    // Posiciones: 0 tipo, 1 slug, 2 fecha, 3 descripción, 4 imagen, 5 tamaño, 6 géneros, 7 galería, 8 vídeos,
+    // 9 developers, 10 publishers, 11 idiomas, 12 metacritic, 13 edad, 14 is_free, 15 coming soon
+    private static List<Object> extraerActual(String json) {
+        List<Object> r = new ArrayList<>(16);
+        try {
+            SteamApp app = SteamApp.leer(json);
+            if (app == null) return r;
+            r.add(app.tipo);
+            r.add(SteamExtractor.generarSlug(app.nombre));
+            r.add(SteamExtractor.fechaISO(app.fecha));
+            r.add(SteamExtractor.descripcionCorta(app.descripcionCorta));
+            r.add(app.headerImage);
+            r.add(SteamExtractor.tamano(app));
+            r.add(app.generos);
+            r.add(app.capturas);
+            r.add(app.videos);
+            r.add(app.desarrolladores);
+            r.add(app.editores);
+            r.add(SteamExtractor.procesarIdiomas(app.idiomas));
+            r.add(app.metacritic);
+            r.add(SteamExtractor.edadRecomendada(app));
+            r.add(app.isFree);
+            r.add(app.comingSoon);
+        } catch (Exception e) {
+            r.clear();
+        }
+        return r;
+    }
+
+    private static List<Object> extraerAnterior(String json) {
+        List<Object> r = new ArrayList<>(16);
+        r.add(Anterior.extraerValorJsonManual(json, "type"));
+        r.add(Anterior.generarSlug(Anterior.extraerValorJsonManual(json, "name")));
+        r.add(Anterior.extraerFechaISO(json));
+        r.add(Anterior.extraerDescripcionCorta(json));
+        String imgPrincipal = Anterior.extraerValorJsonManual(json, "header_image");
+        r.add(imgPrincipal != null ? imgPrincipal.replace("\\/", "/") : null);
+        r.add(Anterior.extraerTamano(json));
+        r.add(Anterior.extraerGeneros(json));
+        r.add(Anterior.extraerGaleria(json));
+        r.add(Anterior.extraerVideos(json));
+        r.add(Anterior.extraerListaSimple(json, "developers"));
+        r.add(Anterior.extraerListaSimple(json, "publishers"));
+        r.add(Anterior.procesarIdiomas(json));
+        r.add(Anterior.extraerMetacritic(json));
+        r.add(Anterior.extraerRequiredAge(json));
+        r.add(json.contains("\"is_free\":true"));
+        r.add(json.contains("\"coming_soon\":true"));
+        return r;
+    }
+
+    private static List<Object> resumen(List<Object> campos) {
+        if (campos.size() < 16) return campos;
+        return List.of(String.valueOf(campos.get(1)), String.valueOf(campos.get(2)), campos.get(13), campos.get(12), campos.get(5));
+    }
+
+    // Copia de los extractores tal como estaban en SteamScraper/SteamUpcomingScraper, solo como referencia del benchmark
+    private static class Anterior {
+
+        static String generarSlug(String titulo) {
+            if (titulo == null) return "unknown";
+            String normalized = Normalizer.normalize(titulo, Normalizer.Form.NFD);
+            String slug = normalized.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+            slug = slug.toLowerCase();
+            slug = slug.replaceAll("[^\\p{L}\\p{N}\\s-]", "");
+            slug = slug.replaceAll("\\s+", "-");
+            slug = slug.replaceAll("-+", "-");
+            if (slug.startsWith("-")) slug = slug.substring(1);
+            if (slug.endsWith("-")) slug = slug.substring(0, slug.length() - 1);
+            if (slug.isEmpty()) return "unknown";
+            return slug;
+        }
+
+        static String extraerFechaISO(String json) {
+            String rawDate = extraerValorJsonManual(json, "date");
+            if (rawDate == null || rawDate.contains("TBA") || rawDate.trim().isEmpty()) return null;
+            try {
+                String[] parts = rawDate.replace(",", "").split(" ");
+                if (parts.length < 3) return null;
+                String mesStr = parts[0].substring(0, 3).toLowerCase();
+                String dia = parts[1];
+                String anio = parts[2];
+                if (dia.length() == 1) dia = "0" + dia;
+                String mes = switch (mesStr) {
+                    case "jan" -> "01"; case "feb" -> "02"; case "mar" -> "03";
+                    case "apr" -> "04"; case "may" -> "05"; case "jun" -> "06";
+                    case "jul" -> "07"; case "aug" -> "08"; case "sep" -> "09";
+                    case "oct" -> "10"; case "nov" -> "11"; case "dec" -> "12";
+                    default -> "01";
+                };
+                return anio + "-" + mes + "-" + dia;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        static String extraerDescripcionCorta(String json) {
+            String desc = extraerValorJsonManual(json, "short_description");
+            if (desc == null) return "";
+            desc = desc.replace("&quot;", "\"").replace("&amp;", "&").replace("&lt;", "<").replace("&gt;", ">");
+            if (desc.length() > 300) return desc.substring(0, 297) + "...";
+            return desc;
+        }
+
+        static List<String> extraerGaleria(String json) {
+            List<String> screenshots = new ArrayList<>();
+            int idx = json.indexOf("\"screenshots\"");
+            if (idx == -1) return screenshots;
+            int count = 0;
+            int startSearch = idx;
+            while (count < 3) {
+                int pathFullIdx = json.indexOf("\"path_full\":", startSearch);
+                if (pathFullIdx == -1) break;
+                int startQuote = json.indexOf("\"", pathFullIdx + 12);
+                int endQuote = json.indexOf("\"", startQuote + 1);
+                if (startQuote == -1 || endQuote == -1) break;
+                screenshots.add(json.substring(startQuote + 1, endQuote).replace("\\/", "/"));
+                startSearch = endQuote;
+                count++;
+            }
+            return screenshots;
+        }
+
+        static List<Map<String, String>> extraerVideos(String json) {
+            List<Map<String, String>> videos = new ArrayList<>();
+            int idxMovies = json.indexOf("\"movies\"");
+            if (idxMovies == -1) return videos;
+            int endMovies = json.indexOf("]", idxMovies);
+            if (endMovies == -1) return videos;
+            String moviesSection = json.substring(idxMovies, endMovies + 1);
+
+            Matcher mId = Pattern.compile("\"id\":\\s*(\\d+)").matcher(moviesSection);
+            List<Integer> startIndices = new ArrayList<>();
+            while (mId.find()) startIndices.add(mId.start());
+
+            for (int i = 0; i < startIndices.size(); i++) {
+                int start = startIndices.get(i);
+                int end = (i < startIndices.size() - 1) ? startIndices.get(i+1) : moviesSection.length();
+                String block = moviesSection.substring(start, end);
+
+                String name = extraerValorJsonManual(block, "name");
+                String thumbnail = extraerValorJsonManual(block, "thumbnail");
+                String url = null;
+                Matcher mMp4Max = Pattern.compile("\"mp4\":\\s*\\{.*?\"max\":\"([^\"]+)\"").matcher(block);
+                if (mMp4Max.find()) url = mMp4Max.group(1);
+                if (url == null) {
+                    Matcher mMp4480 = Pattern.compile("\"mp4\":\\s*\\{.*?\"480\":\"([^\"]+)\"").matcher(block);
+                    if (mMp4480.find()) url = mMp4480.group(1);
+                }
+                if (url == null) {
+                    Matcher mWebm = Pattern.compile("\"webm\":\\s*\\{.*?\"max\":\"([^\"]+)\"").matcher(block);
+                    if (mWebm.find()) url = mWebm.group(1);
+                }
+                if (url == null) {
+                    url = extraerValorJsonManual(block, "hls_h264");
+                    if (url == null) url = extraerValorJsonManual(block, "dash_h264");
+                }
+                if (url != null && name != null) {
+                    Map<String, String> v = new HashMap<>();
+                    v.put("titulo", limpiarTexto(name));
+                    v.put("url", url.replace("\\/", "/"));
+                    if (thumbnail != null) v.put("thumbnail", thumbnail.replace("\\/", "/"));
+                    videos.add(v);
+                }
+            }
+            return videos;
+        }
+
+        static List<String> extraerGeneros(String json) {
+            List<String> generos = new ArrayList<>();
+            int idxGenres = json.indexOf("\"genres\"");
+            if (idxGenres == -1) return generos;
+            int endGenres = json.indexOf("]", idxGenres);
+            if (endGenres == -1) return generos;
+            String genresSection = json.substring(idxGenres, endGenres + 1);
+            Matcher m = Pattern.compile("\"description\":\"([^\"]+)\"").matcher(genresSection);
+            while (m.find()) generos.add(m.group(1));
+            return generos;
+        }
+
+        static List<String> extraerListaSimple(String json, String key) {
+            List<String> lista = new ArrayList<>();
+            int idx = json.indexOf("\"" + key + "\"");
+            if (idx == -1) return lista;
+            int startArray = json.indexOf("[", idx);
+            int endArray = json.indexOf("]", startArray);
+            if (startArray == -1 || endArray == -1) return lista;
+            String content = json.substring(startArray + 1, endArray);
+            Matcher m = Pattern.compile("\"([^\"]+)\"").matcher(content);
+            while (m.find()) lista.add(m.group(1));
+            return lista;
+        }
+
+        static int extraerMetacritic(String json) {
+            try {
+                Matcher m = Pattern.compile("\"metacritic\":\\s*\\{\\s*\"score\":\\s*(\\d+)").matcher(json);
+                if (m.find()) return Integer.parseInt(m.group(1));
+            } catch (Exception e) {}
+            return 0;
+        }
+
+        static int extraerRequiredAge(String json) {
+            int pegi = buscarRatingEspecifico(json, "pegi");
+            if (pegi > 0) return pegi;
+            int esrb = buscarRatingEspecifico(json, "esrb");
+            if (esrb > 0) {
+                if (esrb >= 17) return 16;
+                if (esrb >= 13) return 12;
+                if (esrb >= 10) return 7;
+                return esrb;
+            }
+            int maxAge = 0;
+            try {
+                Matcher m = Pattern.compile("\"required_age\":\\s*\"?(\\d+)\"?").matcher(json);
+                while (m.find()) {
+                    try {
+                        int age = Integer.parseInt(m.group(1));
+                        if (age > maxAge) maxAge = age;
+                    } catch (NumberFormatException e) {}
+                }
+            } catch (Exception e) {}
+            if (maxAge <= 0) return 0;
+            if (maxAge <= 3) return 3;
+            if (maxAge <= 7) return 7;
+            if (maxAge <= 10) return 7;
+            if (maxAge <= 12) return 12;
+            if (maxAge <= 14) return 12;
+            if (maxAge <= 16) return 16;
+            if (maxAge <= 17) return 16;
+            return 18;
+        }
+
+        static int buscarRatingEspecifico(String json, String sistema) {
+            try {
+                int idxSystem = json.indexOf("\"" + sistema + "\":");
+                if (idxSystem == -1) return 0;
+                int idxEnd = json.indexOf("}", idxSystem);
+                if (idxEnd == -1) return 0;
+                String block = json.substring(idxSystem, idxEnd);
+                Matcher m = Pattern.compile("\"rating\":\\s*\"?([a-zA-Z0-9]+)\"?").matcher(block);
+                if (m.find()) {
+                    String val = m.group(1).toLowerCase();
+                    if (val.matches("\\d+")) return Integer.parseInt(val);
+                    if (sistema.equals("esrb")) {
+                        if (val.equals("e")) return 0;
+                        if (val.equals("e10")) return 10;
+                        if (val.equals("t")) return 13;
+                        if (val.equals("m")) return 17;
+                        if (val.equals("ao")) return 18;
+                    }
+                }
+            } catch (Exception e) {}
+            return 0;
+        }
+
+        static String extraerTamano(String json) {
+            try {
+                Matcher m = Pattern.compile("(Storage|Hard Drive):.*?(\\d+\\.?\\d*)\\s*(GB|MB)").matcher(json);
+                if (m.find()) return m.group(2) + " " + m.group(3);
+            } catch (Exception e) {}
+            return "N/A";
+        }
+
+        static Map<String, List<String>> procesarIdiomas(String json) {
+            Map<String, List<String>> result = new HashMap<>();
+            List<String> voces = new ArrayList<>();
+            List<String> textos = new ArrayList<>();
+            result.put("voces", voces);
+            result.put("textos", textos);
+
+            String rawLangs = extraerValorJsonManual(json, "supported_languages");
+            if (rawLangs == null || rawLangs.isEmpty()) return result;
+
+            String cleanLangs = rawLangs.replaceAll("languages with full audio support", "");
+            cleanLangs = cleanLangs.replace("with full audio support", "");
+            cleanLangs = cleanLangs.replace("\\r", ",");
+            cleanLangs = cleanLangs.replace("\\n", ",");
+            cleanLangs = cleanLangs.replace("\r", ",");
+            cleanLangs = cleanLangs.replace("\n", ",");
+            cleanLangs = cleanLangs.replaceAll("<br\\s*/?>", ",");
+
+            for (String part : cleanLangs.split(",")) {
+                boolean hasVoice = part.contains("*");
+                String langName = part.replace("*", "").replaceAll("\\[.*?\\]", "").replaceAll("<[^>]*>", "").trim();
+                if (!langName.isEmpty()) {
+                    if (!textos.contains(langName)) textos.add(langName);
+                    if (hasVoice && !voces.contains(langName)) voces.add(langName);
+                }
+            }
+            return result;
+        }
+
+        static String extraerValorJsonManual(String json, String key) {
+            String searchKey = "\"" + key + "\"";
+            int startKeyIndex = json.indexOf(searchKey);
+            if (startKeyIndex == -1) return null;
+
+            int startQuote = json.indexOf("\"", startKeyIndex + searchKey.length());
+            boolean colonFound = false;
+            for (int i = startKeyIndex + searchKey.length(); i < startQuote; i++) {
+                if (json.charAt(i) == ':') {
+                    colonFound = true;
+                    break;
+                }
+            }
+            if (!colonFound || startQuote == -1) return null;
+
+            StringBuilder sb = new StringBuilder();
+            boolean isEscaped = false;
+            for (int i = startQuote + 1; i < json.length(); i++) {
+                char c = json.charAt(i);
+                if (isEscaped) {
+                    sb.append('\\');
+                    sb.append(c);
+                    isEscaped = false;
+                } else if (c == '\\') {
+                    isEscaped = true;
+                } else if (c == '"') {
+                    return sb.toString();
+                } else {
+                    sb.append(c);
+                }
+            }
+            return null;
+        }
+
+        static String limpiarTexto(String t) {
+            if (t == null) return "";
+            return t.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "\\r").replace("\n", "\\n");
+        }
+    }
+}
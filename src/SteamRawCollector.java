@@ -1,16 +1,26 @@
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,6 +32,42 @@ public class SteamRawCollector {
     private static final boolean MODO_PRUEBA = false; 
     private static final int LIMITE_PRUEBA = 100;
 
+    // Steam admite ~200 peticiones cada 5 minutos en appdetails
+    private static final int HILOS_DESCARGA = 4;
+    private static final double PETICIONES_POR_SEGUNDO = 200.0 / 300.0;
+    private static final int RAFAGA_MAXIMA = 10;
+
+    // Control adaptativo (AIMD): sube despacio mientras todo va bien y recorta a la mitad ante un 429
+    private static final double TASA_MINIMA = 0.1;
+    private static final double TASA_MAXIMA = 3.0;
+    private static final double INCREMENTO_TASA = 0.002; // req/s ganados por cada segundo sin bloqueos
+    private static final double FACTOR_REDUCCION = 0.5;
+    private static final long ESPERA_429_MS = 30000; // Si Steam no envía Retry-After
+    private static final int MAX_INTENTOS_HTTP = 5;
+    private static final Duration TIMEOUT_PETICION = Duration.ofSeconds(15);
+    // -Dsteam.apiUrl / -Dsteam.storeUrl apuntan el collector a otro servidor (p. ej. HttpReplayServer)
+    private static final String STEAM_API_URL = System.getProperty("steam.apiUrl", "https://api.steampowered.com");
+    private static final String STEAM_STORE_URL = System.getProperty("steam.storeUrl", "https://store.steampowered.com");
+
+    // Escritura por lotes: una transacción cada N filas o cada T ms
+    private static final int FILAS_POR_TRANSACCION = 200;
+    private static final long MS_POR_TRANSACCION = 2000;
+    private static final int CAPACIDAD_COLA_ESCRITURA = 1000;
+
+    // Sincronización delta del catálogo (GetAppList con if_modified_since)
+    private static final int DIAS_ENTRE_SYNC_COMPLETA = 30;
+    private static final long MARGEN_SYNC_SEGUNDOS = 3600; // Solape por si el reloj local y el de Steam no coinciden
+    private static final String CLAVE_ULTIMA_SYNC = "ultima_sync";
+    private static final String CLAVE_ULTIMA_SYNC_COMPLETA = "ultima_sync_completa";
+
+    private static SqliteBatchWriter escritor;
+    private static IntLongHashMap hashesGuardados = new IntLongHashMap();
+
+    // El primer "type" del JSON de appdetails es el del propio juego (data.type)
+    private static final Pattern PATTERN_TYPE = Pattern.compile("\"type\":\"([^\"]+)\"");
+    private static final Pattern PATTERN_RELEASE_DATE = Pattern.compile("\"release_date\":\\{\"coming_soon\":(?:true|false),\"date\":\"([^\"]*)\"");
+    private static final DateTimeFormatter FORMATO_FECHA_STEAM = DateTimeFormatter.ofPattern("MMM d yyyy", Locale.ENGLISH);
+
     public static void main(String[] args) {
         try {
             System.out.println("🚀 Iniciando SteamRawCollector (Filtro Inteligente + Auto-Update Coming Soon)...");
@@ -35,85 +81,225 @@ public class SteamRawCollector {
 
             setupDatabase();
 
-            // Cargamos IDs que NO queremos volver a procesar:
+            // Modo delta: si hubo una sincronización completa reciente, solo se piden a GetAppList
+            // las apps modificadas desde la última sincronización correcta (if_modified_since).
+            // Cada DIAS_ENTRE_SYNC_COMPLETA días (o con --args="completo") se recorre el catálogo entero.
+            long inicioSync = SteamRecheckScheduler.ahoraEpoch();
+            long ultimaSync = cargarEstadoSync(CLAVE_ULTIMA_SYNC);
+            long ultimaSyncCompleta = cargarEstadoSync(CLAVE_ULTIMA_SYNC_COMPLETA);
+            boolean forzarCompleta = Arrays.asList(args).contains("completo");
+            boolean modoDelta = !forzarCompleta && ultimaSync > 0 &&
+                                inicioSync - ultimaSyncCompleta < DIAS_ENTRE_SYNC_COMPLETA * 86400L;
+
+            // Cargamos IDs que NO queremos volver a procesar (salvo que su ficha haya cambiado en el catálogo):
             // 1. Juegos ya guardados y lanzados (coming_soon: false).
-            // 2. IDs ignorados (basura, demos, etc).
-            // Los "coming soon" NO se cargan aquí, para que pasen a pendientes y se actualicen.
-            Set<Integer> idsYaGuardados = cargarIdsYaGuardados();
-            System.out.println("📚 Base de datos (Procesados + Ignorados): " + idsYaGuardados.size() + " ítems.");
-            
-            System.out.println("☁️ Descargando catálogo fresco de Steam (Juegos + DLCs)...");
-            List<Integer> catalogoSteam = obtenerCatalogoSteam();
-            System.out.println("📦 Catálogo Steam total: " + catalogoSteam.size() + " ítems.");
-
-            List<Integer> pendientes = new ArrayList<>();
-            for (Integer id : catalogoSteam) {
-                // Si no está en la lista de "ya finalizados", lo procesamos.
-                // Esto incluye: NUEVOS y juegos que estaban en COMING SOON.
-                if (!idsYaGuardados.contains(id)) {
+            // 2. "Coming soon" cuya próxima revisión aún no toca (ver SteamRecheckScheduler).
+            // Los "coming soon" vencidos NO se cargan aquí, para que pasen a pendientes y se actualicen.
+            // Los ignorados (basura, demos, etc) van aparte: no se reevalúan aunque cambien.
+            IntBitmap idsYaGuardados = cargarIdsYaGuardados();
+            IntBitmap idsIgnorados = cargarIdsIgnorados();
+            IntList revisionesVencidas = cargarRevisionesVencidas();
+            System.out.println("📅 Coming Soon con revisión vencida: " + revisionesVencidas.size() + " ítems.");
+            System.out.println("📚 Base de datos: " + idsYaGuardados.size() + " procesados + " + idsIgnorados.size() + " ignorados.");
+
+            // last_modified / price_change_number de la última sincronización, para detectar fichas modificadas
+            SteamCatalog catalogoGuardado = cargarCatalogoGuardado();
+
+            SteamCatalog catalogoSteam;
+            if (modoDelta) {
+                long desde = Math.max(0, ultimaSync - MARGEN_SYNC_SEGUNDOS);
+                System.out.println("☁️ Sincronización delta: apps modificadas desde " + Instant.ofEpochSecond(desde) + "...");
+                catalogoSteam = obtenerCatalogoSteam(desde);
+            } else {
+                System.out.println("☁️ Descargando catálogo completo de Steam (Juegos + DLCs)...");
+                catalogoSteam = obtenerCatalogoSteam(0);
+            }
+            System.out.println("📦 Catálogo Steam " + (modoDelta ? "(delta)" : "total") + ": " + catalogoSteam.size() + " ítems.");
+
+            IntHashSet vencidos = new IntHashSet(revisionesVencidas.size());
+            for (int i = 0; i < revisionesVencidas.size(); i++) vencidos.add(revisionesVencidas.get(i));
+            IntHashSet vencidosEnCatalogo = new IntHashSet();
+            IntList modificados = new IntList();
+            IntList nuevos = new IntList();
+            for (int i = 0; i < catalogoSteam.size(); i++) {
+                int id = catalogoSteam.getAppId(i);
+                if (idsIgnorados.contains(id)) continue;
+                if (vencidos.contains(id)) {
+                    vencidosEnCatalogo.add(id);
+                } else if (esModificado(catalogoSteam, i, catalogoGuardado)) {
+                    // Ya guardado, pero su ficha cambió desde la última sincronización
+                    modificados.add(id);
+                } else if (!idsYaGuardados.contains(id)) {
+                    nuevos.add(id);
+                }
+            }
+
+            // Primero las revisiones vencidas, de la más atrasada a la menos; después los modificados y los nuevos.
+            // En modo delta el catálogo solo trae lo modificado, así que los vencidos se procesan aunque no aparezcan.
+            IntList pendientes = new IntList(revisionesVencidas.size() + modificados.size() + nuevos.size());
+            int revisiones = 0;
+            for (int i = 0; i < revisionesVencidas.size(); i++) {
+                int id = revisionesVencidas.get(i);
+                if (modoDelta || vencidosEnCatalogo.contains(id)) {
                     pendientes.add(id);
+                    revisiones++;
                 }
             }
-            System.out.println("⚡ Pendientes de análisis (Nuevos + Coming Soon): " + pendientes.size() + " ítems.");
+            pendientes.addAll(modificados);
+            pendientes.addAll(nuevos);
 
-            if (pendientes.isEmpty()) {
-                System.out.println("✅ Todo sincronizado. No hay trabajo pendiente.");
-                return;
+            // Hash del último contenido guardado de lo ya guardado que se vuelve a descargar (Coming Soon y modificados)
+            hashesGuardados = cargarHashesGuardados(modificados);
+            System.out.println("⚡ Pendientes de análisis: " + pendientes.size() + " ítems (Revisiones: " +
+                               revisiones + " | Modificados: " + modificados.size() + " | Nuevos: " + nuevos.size() + ").");
+
+            int totalTareas = pendientes.size();
+            if (MODO_PRUEBA && totalTareas > LIMITE_PRUEBA) {
+                System.out.println("🧪 Modo prueba: se procesarán solo " + LIMITE_PRUEBA + " ítems.");
+                totalTareas = LIMITE_PRUEBA;
             }
 
-            int procesados = 0;
-            int juegosGuardados = 0;
-            int basuraDescartada = 0;
-            
-            for (int i = 0; i < pendientes.size(); i++) {
-                int appId = pendientes.get(i);
-                
-                try {
-                    if (MODO_PRUEBA && procesados >= LIMITE_PRUEBA) {
-                        System.out.println("🧪 Límite de prueba alcanzado.");
-                        break;
-                    }
+            // Motor concurrente: varios hilos comparten un token bucket, así las peticiones
+            // van a la tasa que permite Steam y la latencia de red se solapa entre hilos.
+            AdaptiveRateController control = new AdaptiveRateController(
+                    new RateLimiter(PETICIONES_POR_SEGUNDO, RAFAGA_MAXIMA),
+                    TASA_MINIMA, TASA_MAXIMA, INCREMENTO_TASA, FACTOR_REDUCCION, ESPERA_429_MS);
+            Progreso progreso = new Progreso(totalTareas);
+            AtomicInteger siguiente = new AtomicInteger(0);
+            final int limiteTareas = totalTareas;
 
-                    String jsonCrudo = descargarJsonJuego(appId);
-
-                    if (jsonCrudo != null && !jsonCrudo.isEmpty()) {
-                        
-                        // Aceptamos tanto JUEGOS como DLCs
-                        if (jsonCrudo.contains("\"type\":\"game\"") || jsonCrudo.contains("\"type\":\"dlc\"")) {
-                            guardarJuego(appId, jsonCrudo);
-                            // Si antes estaba ignorado, ahora lo borramos de la lista negra
-                            borrarDeIgnorados(appId);
-                            juegosGuardados++;
-                        } else {
-                            guardarIgnorado(appId);
-                            basuraDescartada++;
-                        }
+            // Los hilos de descarga no tocan la BD: encolan y un único escritor confirma por lotes
+            escritor = new SqliteBatchWriter(DB_FILE, FILAS_POR_TRANSACCION, MS_POR_TRANSACCION, CAPACIDAD_COLA_ESCRITURA);
+            try {
+                if (pendientes.isEmpty()) {
+                    System.out.println("✅ Todo sincronizado. No hay trabajo pendiente.");
+                } else {
+                    ExecutorService pool = Executors.newFixedThreadPool(HILOS_DESCARGA);
+                    for (int h = 0; h < HILOS_DESCARGA; h++) {
+                        pool.submit(() -> {
+                            int i;
+                            while ((i = siguiente.getAndIncrement()) < limiteTareas) {
+                                if (!procesarAppId(pendientes.get(i), control, progreso)) return;
+                            }
+                        });
                     }
-                    
-                    if (procesados % 50 == 0) {
-                        System.out.println(String.format("🚀 Progreso: %d/%d | Guardados: %d | Descartados: %d | ID: %d", 
-                            procesados, pendientes.size(), juegosGuardados, basuraDescartada, appId));
+                    pool.shutdown();
+                    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                }
+
+                // El estado de sincronización solo avanza si el catálogo llegó entero, se procesó todo
+                // y el escritor confirmó todas las filas (si no, la próxima sincronización repite lo que se perdió)
+                boolean runCompleto = catalogoSteam.isCompleto() && !MODO_PRUEBA &&
+                                      progreso.procesados.get() >= pendientes.size();
+                escritor.vaciar();
+                if (escritor.getFilasFallidas() > 0) {
+                    System.out.println("⚠️ " + escritor.getFilasFallidas() + " filas no se pudieron escribir. No se actualiza el estado del catálogo.");
+                } else if (runCompleto) {
+                    guardarEstadoCatalogo(catalogoSteam, catalogoGuardado, progreso.fallidos);
+                    // La marca se escribe después, y solo si el catálogo se confirmó entero
+                    escritor.vaciar();
+                    if (escritor.getFilasFallidas() > 0) {
+                        System.out.println("⚠️ No se pudo guardar el estado del catálogo. No se avanza la marca de sincronización.");
+                    } else if (progreso.fallidos.isEmpty()) {
+                        guardarEstadoSync(CLAVE_ULTIMA_SYNC, inicioSync);
+                        if (!modoDelta) guardarEstadoSync(CLAVE_ULTIMA_SYNC_COMPLETA, inicioSync);
+                    } else {
+                        // Sin avanzar la marca, la próxima delta vuelve a pedir estas apps (las ya hechas se filtran por last_modified)
+                        System.out.println("⚠️ " + progreso.fallidos.size() + " apps fallaron. No se avanza la marca de sincronización.");
                     }
-                    
-                    procesados++;
-                    
-                    // Respetar límites de Steam (evita el 429)
-                    try { Thread.sleep(1500); } catch (InterruptedException e) {}
-
-                } catch (Throwable t) {
-                    System.err.println("❌ Error crítico en AppID " + appId + ": " + t.toString());
+                } else {
+                    System.out.println("⚠️ Sincronización incompleta: no se actualiza el estado del catálogo.");
                 }
+            } finally {
+                escritor.close();
             }
             
-            System.out.println("\n🏁 Sincronización finalizada.");
-            System.out.println("   -> Juegos/DLCs Procesados: " + juegosGuardados);
-            System.out.println("   -> Basura Descartada: " + basuraDescartada);
+            System.out.println("\n🏁 Sincronización " + (modoDelta ? "delta" : "completa") + " finalizada.");
+            System.out.println("   -> Juegos/DLCs Procesados: " + progreso.juegosGuardados.get());
+            System.out.println("   -> Sin cambios (solo checked_at): " + progreso.sinCambios.get());
+            System.out.println("   -> Basura Descartada: " + progreso.basuraDescartada.get());
+            System.out.println("   -> Fallidos (se reintentarán): " + progreso.fallidos.size());
+            System.out.println("   -> Filas escritas en BD: " + escritor.getFilasEscritas() + " (fallidas: " + escritor.getFilasFallidas() + ")");
+            System.out.println(String.format("   -> Tasa final: %.2f req/s | Bloqueos 429: %d | Errores 403/5xx: %d",
+                control.getTasaActual(), control.getTotal429(), control.getTotalErrores()));
             
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    // --- MOTOR DE DESCARGA CONCURRENTE ---
+
+    private static class Progreso {
+        final int total;
+        final AtomicInteger procesados = new AtomicInteger();
+        final AtomicInteger juegosGuardados = new AtomicInteger();
+        final AtomicInteger sinCambios = new AtomicInteger();
+        final AtomicInteger basuraDescartada = new AtomicInteger();
+        // Sin respuesta válida (429 agotados, error de red...): no se da por sincronizado su last_modified
+        final IntHashSet fallidos = new IntHashSet();
+
+        Progreso(int total) {
+            this.total = total;
+        }
+
+        void registrarFallo(int appId) {
+            synchronized (fallidos) {
+                fallidos.add(appId);
+            }
+        }
+    }
+
+    // Devuelve false si el hilo fue interrumpido o el escritor murió y debe terminar.
+    private static boolean procesarAppId(int appId, AdaptiveRateController control, Progreso progreso) {
+        try {
+            String jsonCrudo = descargarJsonJuego(appId, control);
+
+            if (jsonCrudo != null && !jsonCrudo.isEmpty()) {
+                
+                // Aceptamos tanto JUEGOS como DLCs
+                if (jsonCrudo.contains("\"type\":\"game\"") || jsonCrudo.contains("\"type\":\"dlc\"")) {
+                    long hash = hashContenido(jsonCrudo);
+                    if (hashesGuardados.containsKey(appId) && hashesGuardados.get(appId, 0) == hash) {
+                        // Mismo contenido: no reescribimos el JSON, solo dejamos constancia de la comprobación
+                        marcarRevisado(appId, jsonCrudo);
+                        progreso.sinCambios.incrementAndGet();
+                    } else {
+                        guardarJuego(appId, jsonCrudo, hash);
+                        // Si antes estaba ignorado, ahora lo borramos de la lista negra
+                        borrarDeIgnorados(appId);
+                        progreso.juegosGuardados.incrementAndGet();
+                    }
+                } else {
+                    guardarIgnorado(appId);
+                    progreso.basuraDescartada.incrementAndGet();
+                }
+            } else {
+                progreso.registrarFallo(appId);
+            }
+            
+            int procesados = progreso.procesados.getAndIncrement();
+            if (procesados % 50 == 0) {
+                System.out.println(String.format("🚀 Progreso: %d/%d | Guardados: %d | Sin cambios: %d | Descartados: %d | Tasa: %.2f req/s | ID: %d", 
+                    procesados, progreso.total, progreso.juegosGuardados.get(), progreso.sinCambios.get(),
+                    progreso.basuraDescartada.get(), control.getTasaActual(), appId));
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IllegalStateException e) {
+            // El escritor ya no acepta filas: seguir descargando solo tiraría el resto del catálogo
+            progreso.registrarFallo(appId);
+            System.err.println("❌ Escritor de BD caído en AppID " + appId + ": " + e.getMessage() + ". Se detiene la descarga.");
+            return false;
+        } catch (Throwable t) {
+            progreso.registrarFallo(appId);
+            System.err.println("❌ Error crítico en AppID " + appId + ": " + t.toString());
+        }
+        return true;
+    }
+
     // --- GESTIÓN DE BASE DE DATOS ---
 
     private static void setupDatabase() {
@@ -130,6 +316,29 @@ public class SteamRawCollector {
             
             stmt.execute("CREATE TABLE IF NOT EXISTS steam_ignored_ids (" +
                          "app_id INTEGER PRIMARY KEY)");
+
+            // Columnas derivadas del JSON, calculadas al escribir, para no re-parsear json_data al arrancar
+            SqliteSchema.asegurarColumna(conn, "steam_raw_data", "coming_soon", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "steam_raw_data", "type", "TEXT");
+            SqliteSchema.asegurarColumna(conn, "steam_raw_data", "release_date", "TEXT");
+            // Detección de cambios: hash del contenido y fecha de la última comprobación sin cambios
+            SqliteSchema.asegurarColumna(conn, "steam_raw_data", "content_hash", "INTEGER");
+            SqliteSchema.asegurarColumna(conn, "steam_raw_data", "checked_at", "TIMESTAMP");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_steam_raw_coming_soon ON steam_raw_data(coming_soon)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_steam_raw_type_release ON steam_raw_data(type, release_date)");
+            rellenarCamposDerivados(conn);
+
+            // Planificador de revisiones de los Coming Soon
+            SteamRecheckScheduler.crearTabla(stmt);
+
+            // Estado de la sincronización del catálogo: marcas de tiempo y last_modified por app
+            stmt.execute("CREATE TABLE IF NOT EXISTS steam_sync_state (" +
+                         "clave TEXT PRIMARY KEY, " +
+                         "valor INTEGER NOT NULL)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS steam_catalog (" +
+                         "app_id INTEGER PRIMARY KEY, " +
+                         "last_modified INTEGER NOT NULL, " +
+                         "price_change_number INTEGER NOT NULL)");
                          
         } catch (Exception e) {
             System.err.println("❌ Error fatal al configurar la base de datos: " + e.getMessage());
@@ -137,29 +346,71 @@ public class SteamRawCollector {
         }
     }
 
-    private static Set<Integer> cargarIdsYaGuardados() {
-        Set<Integer> ids = new HashSet<>();
+    // Migración: calcula las columnas derivadas de las filas guardadas antes de que existieran.
+    // Se trabaja por bloques de IDs para no modificar la tabla mientras se recorre con el mismo cursor.
+    private static void rellenarCamposDerivados(Connection conn) throws Exception {
+        String sqlBloque = "SELECT app_id, json_data FROM steam_raw_data WHERE coming_soon IS NULL AND app_id > ? ORDER BY app_id LIMIT 1000";
+        String sqlUpdate = "UPDATE steam_raw_data SET coming_soon = ?, type = ?, release_date = ? WHERE app_id = ?";
+        int rellenados = 0;
+        int ultimoId = -1;
+
+        try (PreparedStatement psBloque = conn.prepareStatement(sqlBloque);
+             PreparedStatement psUpdate = conn.prepareStatement(sqlUpdate)) {
+            while (true) {
+                List<Integer> ids = new ArrayList<>();
+                List<String> jsons = new ArrayList<>();
+                psBloque.setInt(1, ultimoId);
+                try (ResultSet rs = psBloque.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("app_id"));
+                        jsons.add(JsonStorage.leer(rs, "json_data"));
+                    }
+                }
+                if (ids.isEmpty()) break;
+
+                conn.setAutoCommit(false);
+                for (int i = 0; i < ids.size(); i++) {
+                    String json = jsons.get(i);
+                    psUpdate.setInt(1, esComingSoon(json));
+                    psUpdate.setString(2, extraerTipo(json));
+                    psUpdate.setString(3, extraerFechaLanzamiento(json));
+                    psUpdate.setInt(4, ids.get(i));
+                    psUpdate.addBatch();
+                }
+                psUpdate.executeBatch();
+                conn.commit();
+                conn.setAutoCommit(true);
+
+                rellenados += ids.size();
+                ultimoId = ids.get(ids.size() - 1);
+                System.out.print("\r🛠️ Migración: campos derivados calculados para " + rellenados + " juegos...");
+            }
+        }
+        if (rellenados > 0) System.out.println();
+    }
+
+    private static IntBitmap cargarIdsYaGuardados() {
+        IntBitmap ids = new IntBitmap();
         
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
              Statement stmt = conn.createStatement()) {
              
             // 1. Cargar juegos VÁLIDOS que YA salieron (no son coming soon).
             // Si es coming soon, NO lo añadimos a 'ids', para que 'pendientes' lo incluya y se actualice.
-            ResultSet rsGames = stmt.executeQuery("SELECT app_id, json_data FROM steam_raw_data");
+            // Consulta solo de índice: no se lee json_data.
+            ResultSet rsGames = stmt.executeQuery("SELECT app_id FROM steam_raw_data WHERE coming_soon = 0");
             while (rsGames.next()) {
-                String json = rsGames.getString("json_data");
-                if (!json.contains("\"coming_soon\":true")) {
-                    ids.add(rsGames.getInt("app_id"));
-                }
+                ids.add(rsGames.getInt("app_id"));
             }
             rsGames.close();
 
-            // 2. Cargar los IGNORADOS (demos, videos, etc.) para NO volver a evaluarlos.
-            ResultSet rsIgnored = stmt.executeQuery("SELECT app_id FROM steam_ignored_ids");
-            while (rsIgnored.next()) {
-                ids.add(rsIgnored.getInt("app_id"));
+            // 2. Coming Soon cuya próxima revisión todavía no ha llegado.
+            ResultSet rsProgramados = stmt.executeQuery("SELECT app_id FROM " + SteamRecheckScheduler.TABLA +
+                                                        " WHERE next_check_at > " + SteamRecheckScheduler.ahoraEpoch());
+            while (rsProgramados.next()) {
+                ids.add(rsProgramados.getInt("app_id"));
             }
-            rsIgnored.close();
+            rsProgramados.close();
             
         } catch (Exception e) {
             System.err.println("⚠️ No se pudo cargar la lista de IDs procesados: " + e.getMessage());
@@ -167,124 +418,278 @@ public class SteamRawCollector {
         return ids;
     }
 
-    private static void guardarJuego(int appId, String json) {
-        String sql = "INSERT OR REPLACE INTO steam_raw_data(app_id, json_data) VALUES(?,?)";
-        int intentos = 0;
-        while (intentos < 3) {
-            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, appId);
-                pstmt.setString(2, json);
-                pstmt.executeUpdate();
-                return; 
-            } catch (Exception e) {
-                if (e.getMessage().contains("locked")) {
-                    intentos++;
-                    try { Thread.sleep(100); } catch (InterruptedException ie) {}
-                } else {
-                    System.err.println("⚠️ Error guardando JUEGO " + appId + ": " + e.getMessage());
-                    return;
-                }
+    // IGNORADOS (demos, videos, etc.): NO se vuelven a evaluar
+    private static IntBitmap cargarIdsIgnorados() {
+        IntBitmap ids = new IntBitmap();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT app_id FROM steam_ignored_ids")) {
+            while (rs.next()) {
+                ids.add(rs.getInt("app_id"));
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo cargar la lista de IDs ignorados: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    // Coming Soon que toca revisar, ordenados por prioridad (el más atrasado primero)
+    private static IntList cargarRevisionesVencidas() {
+        IntList ids = new IntList();
+        String sql = "SELECT app_id FROM " + SteamRecheckScheduler.TABLA +
+                     " WHERE next_check_at <= " + SteamRecheckScheduler.ahoraEpoch() + " ORDER BY next_check_at, app_id";
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt("app_id"));
             }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo cargar el planificador de revisiones: " + e.getMessage());
         }
-        System.err.println("❌ Fallo al guardar JUEGO " + appId + " tras 3 intentos (DB Locked)");
+        return ids;
     }
-    
-    private static void guardarIgnorado(int appId) {
-        String sql = "INSERT OR IGNORE INTO steam_ignored_ids(app_id) VALUES(?)";
-        int intentos = 0;
-        while (intentos < 3) {
-            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, appId);
-                pstmt.executeUpdate();
-                return;
-            } catch (Exception e) {
-                if (e.getMessage().contains("locked")) {
-                    intentos++;
-                    try { Thread.sleep(100); } catch (InterruptedException ie) {}
-                } else {
-                    System.err.println("⚠️ Error guardando IGNORADO " + appId + ": " + e.getMessage());
-                    return;
+
+    // Coming Soon (se revisan periódicamente) y modificados en el catálogo (ya lanzados, pero se vuelven a descargar).
+    // Los modificados se buscan por clave primaria: así no se recorre toda la tabla con su json_data.
+    private static IntLongHashMap cargarHashesGuardados(IntList modificados) {
+        IntLongHashMap hashes = new IntLongHashMap();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement stmt = conn.createStatement();
+             PreparedStatement ps = conn.prepareStatement("SELECT content_hash FROM steam_raw_data WHERE app_id = ? AND content_hash IS NOT NULL")) {
+            try (ResultSet rs = stmt.executeQuery("SELECT app_id, content_hash FROM steam_raw_data WHERE coming_soon = 1 AND content_hash IS NOT NULL")) {
+                while (rs.next()) {
+                    hashes.put(rs.getInt("app_id"), rs.getLong("content_hash"));
                 }
             }
+            for (int i = 0; i < modificados.size(); i++) {
+                ps.setInt(1, modificados.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) hashes.put(modificados.get(i), rs.getLong("content_hash"));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudieron cargar los hashes de contenido: " + e.getMessage());
+        }
+        return hashes;
+    }
+
+    // --- ESTADO DE SINCRONIZACIÓN DEL CATÁLOGO ---
+
+    private static long cargarEstadoSync(String clave) {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             PreparedStatement ps = conn.prepareStatement("SELECT valor FROM steam_sync_state WHERE clave = ?")) {
+            ps.setString(1, clave);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getLong("valor");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo leer el estado de sincronización: " + e.getMessage());
         }
+        return 0;
     }
 
-    // Nuevo método para limpiar la tabla de ignorados si rescatamos un DLC
-    private static void borrarDeIgnorados(int appId) {
-        String sql = "DELETE FROM steam_ignored_ids WHERE app_id = ?";
+    private static void guardarEstadoSync(String clave, long valor) throws InterruptedException {
+        escritor.encolar("INSERT OR REPLACE INTO steam_sync_state(clave, valor) VALUES(?,?)", clave, valor);
+    }
+
+    // Ordenado por app_id para poder buscar con SteamCatalog.buscar
+    private static SteamCatalog cargarCatalogoGuardado() {
+        SteamCatalog catalogo = new SteamCatalog();
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, appId);
-            pstmt.executeUpdate();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT app_id, last_modified, price_change_number FROM steam_catalog ORDER BY app_id")) {
+            while (rs.next()) {
+                catalogo.add(rs.getInt(1), rs.getLong(2), rs.getInt(3));
+            }
         } catch (Exception e) {
-            // No es crítico si falla
+            System.err.println("⚠️ No se pudo cargar el catálogo guardado: " + e.getMessage());
+        }
+        return catalogo;
+    }
+
+    // Solo cuenta como modificado lo que ya conocíamos: lo nuevo se decide con idsYaGuardados
+    private static boolean esModificado(SteamCatalog catalogo, int i, SteamCatalog guardado) {
+        int j = guardado.buscar(catalogo.getAppId(i));
+        if (j < 0) return false;
+        return catalogo.getLastModified(i) > guardado.getLastModified(j) ||
+               catalogo.getPriceChangeNumber(i) != guardado.getPriceChangeNumber(j);
+    }
+
+    // Persiste last_modified / price_change_number de lo que cambió. Los fallidos se quedan con el valor
+    // antiguo para que la próxima sincronización los vuelva a detectar como modificados.
+    private static void guardarEstadoCatalogo(SteamCatalog catalogo, SteamCatalog guardado, IntHashSet fallidos) throws InterruptedException {
+        int actualizadas = 0;
+        for (int i = 0; i < catalogo.size(); i++) {
+            int appId = catalogo.getAppId(i);
+            if (fallidos.contains(appId)) continue;
+            int j = guardado.buscar(appId);
+            if (j >= 0 && guardado.getLastModified(j) == catalogo.getLastModified(i) &&
+                guardado.getPriceChangeNumber(j) == catalogo.getPriceChangeNumber(i)) continue;
+            escritor.encolar("INSERT OR REPLACE INTO steam_catalog(app_id, last_modified, price_change_number) VALUES(?,?,?)",
+                    appId, catalogo.getLastModified(i), catalogo.getPriceChangeNumber(i));
+            actualizadas++;
         }
+        System.out.println("🗂️ Estado del catálogo actualizado: " + actualizadas + " apps.");
+    }
+
+    // Las escrituras pasan por el escritor por lotes (una sola conexión, transacciones agrupadas)
+    private static void guardarJuego(int appId, String json, long hash) throws InterruptedException {
+        int comingSoon = esComingSoon(json);
+        String releaseDate = extraerFechaLanzamiento(json);
+        escritor.encolar("INSERT OR REPLACE INTO steam_raw_data(app_id, json_data, coming_soon, type, release_date, content_hash, checked_at) " +
+                         "VALUES(?,?,?,?,?,?,CURRENT_TIMESTAMP)",
+                appId, JsonStorage.codificar(json), comingSoon, extraerTipo(json), releaseDate, hash);
+
+        if (comingSoon == 1) {
+            programarRevision(appId, releaseDate);
+        } else {
+            // Ya ha salido: no necesita más revisiones
+            escritor.encolar("DELETE FROM " + SteamRecheckScheduler.TABLA + " WHERE app_id = ?", appId);
+        }
+    }
+
+    // Contenido idéntico: fecha_sync se mantiene (solo cambia cuando cambia el JSON)
+    private static void marcarRevisado(int appId, String json) throws InterruptedException {
+        escritor.encolar("UPDATE steam_raw_data SET checked_at = CURRENT_TIMESTAMP WHERE app_id = ?", appId);
+        programarRevision(appId, extraerFechaLanzamiento(json));
+    }
+
+    private static void programarRevision(int appId, String releaseDate) throws InterruptedException {
+        LocalDate hoy = LocalDate.now();
+        escritor.encolar("INSERT OR REPLACE INTO " + SteamRecheckScheduler.TABLA + "(app_id, next_check_at, intervalo_dias) VALUES(?,?,?)",
+                appId, SteamRecheckScheduler.siguienteRevision(releaseDate, hoy), SteamRecheckScheduler.intervaloDias(releaseDate, hoy));
     }
     
+    private static void guardarIgnorado(int appId) throws InterruptedException {
+        escritor.encolar("INSERT OR IGNORE INTO steam_ignored_ids(app_id) VALUES(?)", appId);
+    }
+
+    // Limpia la tabla de ignorados si rescatamos un DLC
+    private static void borrarDeIgnorados(int appId) throws InterruptedException {
+        escritor.encolar("DELETE FROM steam_ignored_ids WHERE app_id = ?", appId);
+    }
+    
+    // --- CAMPOS DERIVADOS ---
+
+    private static int esComingSoon(String json) {
+        return json.contains("\"coming_soon\":true") ? 1 : 0;
+    }
+
+    private static String extraerTipo(String json) {
+        Matcher m = PATTERN_TYPE.matcher(json);
+        return m.find() ? m.group(1) : null;
+    }
+
+    // Devuelve la fecha en ISO (yyyy-MM-dd) si Steam da un día concreto ("Nov 16, 2004").
+    // Si no (ej. "Q1 2027", "Coming soon"), se guarda el texto tal cual; null si no hay fecha.
+    private static String extraerFechaLanzamiento(String json) {
+        Matcher m = PATTERN_RELEASE_DATE.matcher(json);
+        if (!m.find()) return null;
+        String fecha = m.group(1).trim();
+        if (fecha.isEmpty()) return null;
+        try {
+            return LocalDate.parse(fecha.replace(",", ""), FORMATO_FECHA_STEAM).toString();
+        } catch (DateTimeParseException e) {
+            return fecha;
+        }
+    }
+
+    // SHA-1 del JSON normalizado (sin espacios en los extremos), truncado a 64 bits para guardarlo como INTEGER
+    private static long hashContenido(String json) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest(json.trim().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 no disponible", e);
+        }
+    }
+
     // --- LÓGICA DE DESCARGA ---
 
-    private static String descargarJsonJuego(int appId) throws Exception {
-        String urlString = "https://store.steampowered.com/api/appdetails?appids=" + appId + "&l=english&cc=us";
-        return peticionHttp(urlString);
+    private static String descargarJsonJuego(int appId, AdaptiveRateController control) throws Exception {
+        String urlString = STEAM_STORE_URL + "/api/appdetails?appids=" + appId + "&l=english&cc=us";
+        return peticionHttp(urlString, control);
     }
 
-    private static List<Integer> obtenerCatalogoSteam() {
-        List<Integer> ids = new ArrayList<>();
+    // modificadoDesde > 0: solo apps con last_modified posterior (sincronización delta). 0: catálogo completo.
+    // El catálogo se marca como completo solo si se llega a la última página sin errores.
+    private static SteamCatalog obtenerCatalogoSteam(long modificadoDesde) {
+        SteamCatalog catalogo = new SteamCatalog();
         int lastAppId = 0;
         
         while (true) { 
             try {
-                String url = "https://api.steampowered.com/IStoreService/GetAppList/v1/?key=" + API_KEY +
+                String url = STEAM_API_URL + "/IStoreService/GetAppList/v1/?key=" + API_KEY +
                              "&include_games=true&include_dlc=true&max_results=50000&last_appid=" + lastAppId;
-                String json = peticionHttp(url);
-                if (json == null || json.isEmpty()) break;
-                
-                Pattern p = Pattern.compile("\"appid\":(\\d+)");
-                Matcher m = p.matcher(json);
-                int foundInPage = 0;
-                while (m.find()) {
-                    ids.add(Integer.parseInt(m.group(1)));
-                    foundInPage++;
+                if (modificadoDesde > 0) url += "&if_modified_since=" + modificadoDesde;
+                HttpPool.Respuesta response = enviar(url, null);
+                if (response == null || response.getCodigo() != 200) {
+                    System.err.println("⚠️ GetAppList no respondió correctamente (last_appid=" + lastAppId + ").");
+                    break;
+                }
+
+                // Se parsea en streaming directamente del socket, sin pasar por un String de la página
+                SteamCatalog.Pagina pagina;
+                try (InputStream in = response.getCuerpo()) {
+                    pagina = catalogo.leerPagina(in);
                 }
                 
-                if (foundInPage == 0) break;
+                if (pagina.apps == 0 || (pagina.hayMasInformado && !pagina.hayMas)) {
+                    catalogo.setCompleto(true);
+                    break;
+                }
                 if (MODO_PRUEBA) break; 
                 
-                lastAppId = ids.get(ids.size() - 1);
+                lastAppId = pagina.lastAppId;
             } catch (Exception e) {
+                System.err.println("⚠️ Error leyendo el catálogo de Steam: " + e.getMessage());
                 break;
             }
         }
-        return ids;
+        return catalogo;
     }
 
-    private static String peticionHttp(String urlString) throws Exception {
-        HttpURLConnection conn = null;
-        try {
-            conn = (HttpURLConnection) new URL(urlString).openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(15000);
-            conn.setReadTimeout(15000);
-            
-            int code = conn.getResponseCode();
-            if (code == 200) {
-                try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                    StringBuilder content = new StringBuilder();
-                    String line;
-                    while ((line = in.readLine()) != null) content.append(line);
-                    return content.toString();
+    private static String peticionHttp(String urlString, AdaptiveRateController control) throws Exception {
+        HttpPool.Respuesta response = enviar(urlString, control);
+        return (response != null && response.getCodigo() == 200) ? response.texto() : null;
+    }
+
+    // Si se pasa un controlador, cada intento consume un token y alimenta el ajuste AIMD.
+    // Sin controlador (catálogo) solo se respeta el Retry-After.
+    // Devuelve null si se agotan los reintentos por 429. El cuerpo solo se lee si la respuesta es 200 (HttpPool).
+    private static HttpPool.Respuesta enviar(String urlString, AdaptiveRateController control) throws Exception {
+        for (int intento = 1; intento <= MAX_INTENTOS_HTTP; intento++) {
+            if (control != null) control.adquirir();
+
+            HttpPool.Respuesta response = HttpPool.get(urlString, TIMEOUT_PETICION);
+            int code = response.getCodigo();
+            if (code == 429) {
+                String retryAfter = response.cabecera("Retry-After");
+                if (control != null) {
+                    long esperaMs = control.registrarRateLimit(retryAfter);
+                    System.out.println(String.format("⏳ Bloqueo detectado (Error 429). Pausa de %ds y tasa reducida a %.2f req/s (intento %d/%d)",
+                        esperaMs / 1000, control.getTasaActual(), intento, MAX_INTENTOS_HTTP));
+                } else {
+                    long esperaMs = AdaptiveRateController.parsearRetryAfter(retryAfter, ESPERA_429_MS);
+                    System.out.println("⏳ Bloqueo detectado (Error 429). Reintentando en " + (esperaMs / 1000) + "s...");
+                    Thread.sleep(esperaMs);
+                }
+                continue;
+            }
+
+            // Solo un 2xx cuenta como éxito para subir la tasa. 403 y 5xx son Steam fallando o frenando: se baja.
+            if (control != null) {
+                if (code >= 200 && code < 300) {
+                    control.registrarExito();
+                } else if (code == 403 || code >= 500) {
+                    control.registrarError();
                 }
-            } else if (code == 429) {
-                System.out.println("⏳ Bloqueo detectado (Error 429). Reintentando en 60s...");
-                Thread.sleep(60000);
-                return peticionHttp(urlString); 
-            } else {
-                return null; 
             }
-        } finally {
-            if (conn != null) conn.disconnect();
+            return response;
         }
+        System.err.println("❌ Demasiados 429 seguidos. Se omite: " + urlString);
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Planificador de revisiones para los juegos "Coming Soon" de Steam.
+// Cada app_id tiene un next_check_at (epoch en segundos) calculado a partir de la distancia a su fecha de lanzamiento:
+// - Lanzamiento en <= 30 días (o ya pasado pero aún marcado como coming soon): cada día.
+// - Fecha conocida a <= 6 meses, o sin fecha (TBA / "Coming soon"): cada semana.
+// - Lanzamiento lejano (> 6 meses): cada mes.
+public class SteamRecheckScheduler {
+
+    public static final String TABLA = "steam_recheck_schedule";
+
+    private static final int DIAS_CERCA_LANZAMIENTO = 30;
+    private static final int DIAS_MEDIO_PLAZO = 180;
+
+    private static final int INTERVALO_DIARIO = 1;
+    private static final int INTERVALO_SEMANAL = 7;
+    private static final int INTERVALO_MENSUAL = 30;
+
+    private static final Pattern PATTERN_ANIO = Pattern.compile("\\b(19|20)\\d{2}\\b");
+    private static final Pattern PATTERN_TRIMESTRE = Pattern.compile("\\bQ([1-4])\\b");
+    private static final String[] MESES = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+
+    private SteamRecheckScheduler() {}
+
+    public static void crearTabla(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLA + " (" +
+                     "app_id INTEGER PRIMARY KEY, " +
+                     "next_check_at INTEGER NOT NULL, " +
+                     "intervalo_dias INTEGER NOT NULL)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_recheck_next ON " + TABLA + "(next_check_at)");
+        // Coming Soon guardados antes de existir el planificador: vencen ya, y al procesarlos se reprograman
+        stmt.execute("INSERT OR IGNORE INTO " + TABLA + "(app_id, next_check_at, intervalo_dias) " +
+                     "SELECT app_id, 0, " + INTERVALO_DIARIO + " FROM steam_raw_data WHERE coming_soon = 1");
+    }
+
+    public static long ahoraEpoch() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    public static long siguienteRevision(String releaseDate, LocalDate hoy) {
+        int dias = intervaloDias(releaseDate, hoy);
+        return hoy.plusDays(dias).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    // releaseDate es lo que guarda SteamRawCollector en la columna release_date:
+    // ISO (yyyy-MM-dd) si Steam dio un día concreto, o el texto original ("Q3 2026", "March 2026", "Coming soon"...)
+    public static int intervaloDias(String releaseDate, LocalDate hoy) {
+        if (releaseDate == null || releaseDate.isBlank()) return INTERVALO_SEMANAL;
+
+        try {
+            LocalDate fecha = LocalDate.parse(releaseDate);
+            long dias = ChronoUnit.DAYS.between(hoy, fecha);
+            if (dias <= DIAS_CERCA_LANZAMIENTO) return INTERVALO_DIARIO;
+            if (dias <= DIAS_MEDIO_PLAZO) return INTERVALO_SEMANAL;
+            return INTERVALO_MENSUAL;
+        } catch (Exception e) {
+            // Fecha aproximada: nunca se revisa a diario, no sabemos el día exacto
+        }
+
+        LocalDate aproximada = fechaAproximada(releaseDate);
+        if (aproximada == null) return INTERVALO_SEMANAL; // TBA, "Coming soon", "To be announced"...
+        long dias = ChronoUnit.DAYS.between(hoy, aproximada);
+        return dias > DIAS_MEDIO_PLAZO ? INTERVALO_MENSUAL : INTERVALO_SEMANAL;
+    }
+
+    // Primer día del periodo que indica el texto: "Q3 2026" -> 2026-07-01, "March 2026" -> 2026-03-01, "2026" -> 2026-01-01
+    private static LocalDate fechaAproximada(String texto) {
+        Matcher mAnio = PATTERN_ANIO.matcher(texto);
+        if (!mAnio.find()) return null;
+        int anio = Integer.parseInt(mAnio.group());
+
+        Matcher mTrimestre = PATTERN_TRIMESTRE.matcher(texto);
+        if (mTrimestre.find()) {
+            int trimestre = Integer.parseInt(mTrimestre.group(1));
+            return LocalDate.of(anio, (trimestre - 1) * 3 + 1, 1);
+        }
+
+        String minusculas = texto.toLowerCase(Locale.ENGLISH);
+        for (int i = 0; i < MESES.length; i++) {
+            if (minusculas.contains(MESES[i])) return LocalDate.of(anio, i + 1, 1);
+        }
+        return LocalDate.of(anio, 1, 1);
+    }
+}